@@ -0,0 +1,34 @@
+// Writes gzip and brotli copies of the text assets of the production build,
+// so the backend can serve them as is instead of compressing on every response.
+
+import fs from 'fs';
+import path from 'path';
+import zlib from 'zlib';
+
+const buildDir = path.resolve(process.argv[2] ?? 'build');
+const compressible = ['.html', '.js', '.css', '.json', '.svg', '.txt', '.map'];
+const minSize = 1024;
+
+const listFiles = (dir) => fs.readdirSync(dir, { withFileTypes: true })
+  .flatMap((entry) => {
+    const filepath = path.join(dir, entry.name);
+    return entry.isDirectory() ? listFiles(filepath) : [filepath];
+  });
+
+const compress = (filepath) => {
+  const content = fs.readFileSync(filepath);
+  fs.writeFileSync(`${filepath}.gz`, zlib.gzipSync(content, { level: zlib.constants.Z_BEST_COMPRESSION }));
+  fs.writeFileSync(`${filepath}.br`, zlib.brotliCompressSync(content, {
+    params: {
+      [zlib.constants.BROTLI_PARAM_QUALITY]: zlib.constants.BROTLI_MAX_QUALITY,
+      [zlib.constants.BROTLI_PARAM_SIZE_HINT]: content.length,
+    },
+  }));
+};
+
+const files = listFiles(buildDir)
+  .filter((filepath) => compressible.includes(path.extname(filepath)))
+  .filter((filepath) => fs.statSync(filepath).size >= minSize);
+
+files.forEach(compress);
+console.log(`Compressed ${files.length} files in ${buildDir}`);
@@ -41,6 +41,7 @@ import { actions as tasksActions } from '../slices/tasksSlice.js';
 
 import { useNotify, useAuth } from '../hooks/index.js';
 import handleError from '../utils.js';
+import subscribeToChanges from '../lib/changeFeed.js';
 
 import getLogger from '../lib/logger.js';
 
@@ -119,6 +120,46 @@ const App = () => {
     // eslint-disable-next-line react-hooks/exhaustive-deps
   }, [auth.user]);
 
+  useEffect(() => {
+    if (!auth.user) {
+      return undefined;
+    }
+    const changeActions = {
+      tasks: [tasksActions.addTask, tasksActions.updateTask, tasksActions.removeTask],
+      statuses: [
+        taskStatusesActions.addTaskStatus,
+        taskStatusesActions.updateTaskStatus,
+        taskStatusesActions.removeTaskStatus,
+      ],
+      labels: [labelsActions.addLabel, labelsActions.updateLabel, labelsActions.removeLabel],
+    };
+    const onChange = ({
+      entity, type, id, data,
+    }) => {
+      const [created, updated, deleted] = changeActions[entity];
+      const actions = {
+        CREATED: () => created(data),
+        UPDATED: () => updated(data),
+        DELETED: () => deleted(id),
+      };
+      dispatch(actions[type]());
+    };
+    // the missed changes are no longer known, so the collections are fetched again
+    const onReset = () => {
+      const headers = auth.getAuthHeader();
+      Promise.all([
+        axios.get(routes.apiTasks(), { headers })
+          .then(({ data }) => dispatch(tasksActions.setTasks(data))),
+        axios.get(routes.apiStatuses(), { headers })
+          .then(({ data }) => dispatch(taskStatusesActions.setTaskStatuses(data))),
+        axios.get(routes.apiLabels(), { headers })
+          .then(({ data }) => dispatch(labelsActions.setLabels(data))),
+      ]).catch((error) => handleError(error, notify, history, auth));
+    };
+    return subscribeToChanges(auth.getAuthHeader, { onChange, onReset });
+    // eslint-disable-next-line react-hooks/exhaustive-deps
+  }, [auth.user]);
+
   const PrivateRoute = ({ children }) => {
     if (!auth.user) {
       const from = { pathname: routes.homePagePath() };
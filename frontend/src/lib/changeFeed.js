@@ -0,0 +1,69 @@
+// @ts-check
+
+import routes from '../routes.js';
+import getLogger from './logger.js';
+
+const log = getLogger('change feed');
+log.enabled = true;
+
+const retryDelayMs = 3000;
+
+const parseEvent = (block) => block.split('\n')
+  .filter((line) => line.indexOf(':') > 0)
+  .map((line) => [line.slice(0, line.indexOf(':')), line.slice(line.indexOf(':') + 1)])
+  .reduce((event, [field, value]) => ({ ...event, [field]: value.replace(/^ /, '') }), {});
+
+// EventSource can not send the Authorization header, so the stream is read with fetch.
+// After a disconnect it reconnects with the id of the last event, the server sends what was missed
+// or a reset event when it no longer knows that id.
+const subscribe = (getAuthHeader, { onChange, onReset }) => {
+  const state = { lastEventId: null, closed: false, controller: null };
+
+  const read = async (reader, decoder, buffer) => {
+    const { done, value } = await reader.read();
+    if (done) {
+      return;
+    }
+    const blocks = (buffer + decoder.decode(value, { stream: true })).split('\n\n');
+    blocks.slice(0, -1)
+      .map(parseEvent)
+      .filter(({ data }) => data !== undefined)
+      .forEach((event) => {
+        state.lastEventId = event.id ?? state.lastEventId;
+        if (event.event === 'reset') {
+          onReset();
+        } else {
+          onChange(JSON.parse(event.data));
+        }
+      });
+    await read(reader, decoder, blocks[blocks.length - 1]);
+  };
+
+  const connect = () => {
+    state.controller = new AbortController();
+    const headers = state.lastEventId
+      ? { ...getAuthHeader(), 'Last-Event-ID': state.lastEventId }
+      : getAuthHeader();
+    fetch(routes.apiChanges(), { headers, signal: state.controller.signal })
+      .then((response) => {
+        if (!response.ok) {
+          throw new Error(`Change feed answered with ${response.status}`);
+        }
+        return read(response.body.getReader(), new TextDecoder(), '');
+      })
+      .catch((error) => log(error))
+      .finally(() => {
+        if (!state.closed) {
+          setTimeout(connect, retryDelayMs);
+        }
+      });
+  };
+
+  connect();
+  return () => {
+    state.closed = true;
+    state.controller.abort();
+  };
+};
+
+export default subscribe;
@@ -47,6 +47,7 @@ const routes = {
   apiUsers: buildUrl('users'),
   apiUser: (id) => `${buildUrl('users')()}/${id}`,
   apiLogin: buildUrl('login'),
+  apiChanges: buildUrl('changes'),
 };
 
 export default routes;
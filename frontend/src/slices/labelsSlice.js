@@ -13,6 +13,7 @@ export const labelsSlice = createSlice({
   initialState,
   reducers: {
     addLabels: adapter.addMany,
+    setLabels: adapter.setAll,
     addLabel: adapter.addOne,
     updateLabel(state, { payload }) {
       adapter.updateOne(state, { id: payload.id, changes: payload });
@@ -14,6 +14,7 @@ export const taskStatusesSlice = createSlice({
   initialState,
   reducers: {
     addTaskStatuses: adapter.addMany,
+    setTaskStatuses: adapter.setAll,
     addTaskStatus: adapter.addOne,
     updateTaskStatus(state, { payload }) {
       adapter.updateOne(state, { id: payload.id, changes: payload });
@@ -13,6 +13,7 @@ export const tasksSlice = createSlice({
   initialState,
   reducers: {
     addTasks: adapter.addMany,
+    setTasks: adapter.setAll,
     addTask: adapter.addOne,
     updateTask(state, { payload }) {
       adapter.updateOne(state, { id: payload.id, changes: payload });
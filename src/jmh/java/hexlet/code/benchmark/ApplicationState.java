@@ -0,0 +1,113 @@
+package hexlet.code.benchmark;
+
+import hexlet.code.AppApplication;
+import hexlet.code.model.Label;
+import hexlet.code.model.Status;
+import hexlet.code.model.Task;
+import hexlet.code.model.User;
+import hexlet.code.repository.LabelRepository;
+import hexlet.code.repository.StatusRepository;
+import hexlet.code.repository.TaskRepository;
+import hexlet.code.repository.UserRepository;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static hexlet.code.config.security.SecurityConfig.DEFAULT_AUTHORITIES;
+
+/**
+ * Application context on an in-memory H2 database migrated by Liquibase and seeded with tasks.
+ * Shared by all benchmarks of a trial, so the context starts once per fork.
+ */
+@State(Scope.Benchmark)
+public class ApplicationState {
+
+    public static final String USERNAME = "benchmark@email.com";
+    public static final int SEEDED_TASKS = 1000;
+    public static final int LABELS = 10;
+
+    private ConfigurableApplicationContext context;
+    private Status status;
+    private List<Label> labels;
+    private User user;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final List<String> arguments = new ArrayList<>(List.of(
+                "--APP_ENV=benchmark",
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN"
+        ));
+        arguments.addAll(schemaArguments());
+        context = new SpringApplicationBuilder(AppApplication.class).run(arguments.toArray(String[]::new));
+
+        // getCurrentUserId reads the security context from the benchmark threads
+        SecurityContextHolder.setStrategyName(SecurityContextHolder.MODE_GLOBAL);
+        SecurityContextHolder.getContext()
+                .setAuthentication(new UsernamePasswordAuthenticationToken(USERNAME, null, DEFAULT_AUTHORITIES));
+
+        user = getBean(UserRepository.class).save(User.builder()
+                .email(USERNAME)
+                .firstName("firstName")
+                .lastName("lastName")
+                .password("password")
+                .build());
+        status = getBean(StatusRepository.class).save(Status.builder().name("status").build());
+        labels = new ArrayList<>();
+        for (int i = 0; i < LABELS; i++) {
+            labels.add(getBean(LabelRepository.class).save(Label.builder().name("label" + i).build()));
+        }
+
+        final List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < SEEDED_TASKS; i++) {
+            tasks.add(Task.builder()
+                    .name("task " + i)
+                    .description("description of task " + i)
+                    .taskStatus(status)
+                    .author(user)
+                    .executor(user)
+                    .labels(Set.of(labels.get(i % LABELS)))
+                    .build());
+        }
+        getBean(TaskRepository.class).saveAll(tasks);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // the schema comes from the Liquibase changesets
+    protected List<String> schemaArguments() {
+        return List.of("--spring.jpa.hibernate.ddl-auto=none");
+    }
+
+    public <T> T getBean(final Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public List<Label> getLabels() {
+        return labels;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+}
@@ -0,0 +1,35 @@
+package hexlet.code.benchmark;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Application context with task ids from the pooled-lo sequence or, for comparison, from an identity column.
+ * Both schemas are generated by Hibernate, so they differ only in how task ids are generated.
+ */
+@State(Scope.Benchmark)
+public class IdGenerationState extends ApplicationState {
+
+    public static final String SEQUENCE = "sequence";
+    public static final String IDENTITY = "identity";
+
+    @Param({SEQUENCE, IDENTITY})
+    private String idGeneration;
+
+    @Override
+    protected List<String> schemaArguments() {
+        final List<String> arguments = new ArrayList<>(List.of(
+                "--spring.liquibase.enabled=false",
+                "--spring.jpa.hibernate.ddl-auto=create"
+        ));
+        if (IDENTITY.equals(idGeneration)) {
+            arguments.add("--spring.jpa.mapping-resources=identity-ids.orm.xml");
+        }
+        return arguments;
+    }
+
+}
@@ -0,0 +1,50 @@
+package hexlet.code.benchmark;
+
+import hexlet.code.component.JWTHelper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JWTHelperBenchmark {
+
+    private static final Map<String, Object> CLAIMS = Map.of("username", "benchmark@email.com");
+
+    private JWTHelper jwtHelper;
+    // no cached tokens, every call checks the signature
+    private JWTHelper uncachedJwtHelper;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtHelper = new JWTHelper("task_manager", 86400L, 300L, "secret", 10000L, 600L, new SimpleMeterRegistry());
+        uncachedJwtHelper = new JWTHelper("task_manager", 86400L, 300L, "secret", 0L, 600L, new SimpleMeterRegistry());
+        token = jwtHelper.expiring(CLAIMS);
+    }
+
+    @Benchmark
+    public String expiring() {
+        return jwtHelper.expiring(CLAIMS);
+    }
+
+    @Benchmark
+    public Map<String, Object> verify() {
+        return jwtHelper.verify(token);
+    }
+
+    @Benchmark
+    public Map<String, Object> verifyUncached() {
+        return uncachedJwtHelper.verify(token);
+    }
+
+}
@@ -0,0 +1,56 @@
+package hexlet.code.benchmark;
+
+import com.querydsl.core.types.Predicate;
+import hexlet.code.model.Task;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.data.querydsl.SimpleEntityPathResolver;
+import org.springframework.data.querydsl.binding.QuerydslBindings;
+import org.springframework.data.querydsl.binding.QuerydslBindingsFactory;
+import org.springframework.data.querydsl.binding.QuerydslPredicateBuilder;
+import org.springframework.data.util.TypeInformation;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Turns request parameters into a predicate the way {@code @QuerydslPredicate} does for {@code GET /api/tasks},
+ * with the bindings from {@code TaskRepository.customize}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class QuerydslBindingBenchmark {
+
+    private static final TypeInformation<Task> TASK_TYPE = TypeInformation.of(Task.class);
+
+    private QuerydslBindingsFactory bindingsFactory;
+    private QuerydslPredicateBuilder predicateBuilder;
+    private MultiValueMap<String, String> parameters;
+
+    @Setup
+    public void setUp(final ApplicationState application) {
+        bindingsFactory = application.getBean(QuerydslBindingsFactory.class);
+        predicateBuilder = new QuerydslPredicateBuilder(new DefaultConversionService(),
+                SimpleEntityPathResolver.INSTANCE);
+        parameters = new LinkedMultiValueMap<>();
+        parameters.add("taskStatus", "1");
+        parameters.add("executorId", "2");
+        parameters.add("labelsId", "3");
+        parameters.add("authorId", "4");
+    }
+
+    @Benchmark
+    public Predicate bindPredicate() {
+        final QuerydslBindings bindings = bindingsFactory.createBindingsFor(TASK_TYPE);
+        return predicateBuilder.getPredicate(TASK_TYPE, parameters, bindings);
+    }
+
+}
@@ -0,0 +1,48 @@
+package hexlet.code.benchmark;
+
+import hexlet.code.dto.TaskDto;
+import hexlet.code.model.Task;
+import hexlet.code.service.TaskService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserts of a batch of tasks with sequence and with identity ids. Identity ids are only known after each
+ * insert, so Hibernate can not batch those.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TaskBatchInsertBenchmark {
+
+    public static final int BATCH_SIZE = 200;
+
+    private TaskService taskService;
+    private List<TaskDto> taskDtos;
+
+    @Setup
+    public void setUp(final IdGenerationState application) {
+        taskService = application.getBean(TaskService.class);
+        taskDtos = new ArrayList<>();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            taskDtos.add(new TaskDto("batch task " + i, "description", application.getStatus().getId(),
+                    List.of(application.getLabels().get(i % ApplicationState.LABELS).getId()),
+                    application.getUser().getId()));
+        }
+    }
+
+    @Benchmark
+    public List<Task> createTasks() {
+        return taskService.createTasks(taskDtos);
+    }
+
+}
@@ -0,0 +1,65 @@
+package hexlet.code.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hexlet.code.model.Label;
+import hexlet.code.model.Status;
+import hexlet.code.model.Task;
+import hexlet.code.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TaskSerializationBenchmark {
+
+    @Param({"1", "100"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private List<Task> tasks;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper().findAndRegisterModules();
+        final User user = User.builder().id(1L).email("user@email.com").firstName("first").lastName("last")
+                .createdAt(new Date()).build();
+        final Status status = Status.builder().id(1L).name("status").createdAt(new Date()).build();
+        final Set<Label> labels = Set.of(
+                Label.builder().id(1L).name("bug").createdAt(new Date()).build(),
+                Label.builder().id(2L).name("feature").createdAt(new Date()).build());
+
+        tasks = new ArrayList<>(size);
+        for (long i = 0; i < size; i++) {
+            tasks.add(Task.builder()
+                    .id(i)
+                    .name("task " + i)
+                    .description("description of task " + i)
+                    .taskStatus(status)
+                    .author(user)
+                    .executor(user)
+                    .labels(labels)
+                    .createdAt(new Date())
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeTasks() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(tasks);
+    }
+
+}
@@ -0,0 +1,43 @@
+package hexlet.code.benchmark;
+
+import hexlet.code.dto.TaskDto;
+import hexlet.code.model.QTask;
+import hexlet.code.model.Task;
+import hexlet.code.service.TaskService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TaskServiceBenchmark {
+
+    private TaskService taskService;
+    private TaskDto taskDto;
+
+    @Setup
+    public void setUp(final ApplicationState application) {
+        taskService = application.getBean(TaskService.class);
+        taskDto = new TaskDto("benchmark task", "description", application.getStatus().getId(),
+                List.of(application.getLabels().get(0).getId()), application.getUser().getId());
+    }
+
+    @Benchmark
+    public Task createTask() {
+        return taskService.createTask(taskDto);
+    }
+
+    @Benchmark
+    public Iterable<Task> findAllTasks() {
+        return taskService.findAllTasks(QTask.task.name.startsWith("task 1"));
+    }
+
+}
@@ -2,8 +2,11 @@ package hexlet.code;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration;
 
-@SpringBootApplication
+// R2DBC is configured by R2dbcConfig, next to the JDBC DataSource and its transaction manager
+@SpringBootApplication(exclude = {R2dbcAutoConfiguration.class, R2dbcTransactionManagerAutoConfiguration.class})
 public class AppApplication {
 
     public static void main(String[] args) {
@@ -1,12 +1,15 @@
 package hexlet.code;
 
-import com.rollbar.notifier.Rollbar;
+import hexlet.code.component.ErrorReporter;
 import hexlet.code.exeption.NotFoundServiceException;
+import hexlet.code.exeption.TooManyRequestsException;
 import lombok.AllArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -18,23 +21,23 @@ import java.util.List;
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
-    private final Rollbar rollbar;
+    private final ErrorReporter errorReporter;
 
     @ExceptionHandler(NotFoundServiceException.class)
     public ResponseEntity<String> handleNotFoundException(final RuntimeException exception) {
-        rollbar.error(exception.getMessage());
+        errorReporter.clientError(exception.getMessage());
         return new ResponseEntity<>(exception.getMessage(), new HttpHeaders(), HttpStatus.NOT_FOUND);
     }
 
     @ExceptionHandler(Exception.class)
     public final ResponseEntity<String> handleGeneralExceptions(final Exception exception) {
-        rollbar.error(exception.getMessage());
+        errorReporter.serverError(exception.getMessage());
         return new ResponseEntity<>(exception.getMessage(), new HttpHeaders(), HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
     @ExceptionHandler(RuntimeException.class)
     public final ResponseEntity<String> handleRuntimeExceptions(final RuntimeException exception) {
-        rollbar.error(exception.getMessage());
+        errorReporter.clientError(exception.getMessage());
         return new ResponseEntity<>(exception.getMessage(), new HttpHeaders(), HttpStatus.UNPROCESSABLE_ENTITY);
     }
 
@@ -44,9 +47,31 @@ public class GlobalExceptionHandler {
                 HttpStatus.UNPROCESSABLE_ENTITY);
     }
 
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<String> handleOptimisticLockingFailureException(
+            final OptimisticLockingFailureException exception) {
+        errorReporter.clientError(exception.getMessage());
+        return new ResponseEntity<>(exception.getMessage(), new HttpHeaders(), HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<String> handleTooManyRequestsException(final TooManyRequestsException exception) {
+        final HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(exception.getRetryAfterSec()));
+        return new ResponseEntity<>(exception.getMessage(), headers, HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    // no database connection could be obtained in time, the request may succeed later
+    @ExceptionHandler(CannotCreateTransactionException.class)
+    public ResponseEntity<String> handleCannotCreateTransactionException(
+            final CannotCreateTransactionException exception) {
+        errorReporter.serverError(exception.getMessage());
+        return new ResponseEntity<>(exception.getMessage(), new HttpHeaders(), HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     @ExceptionHandler(AccessDeniedException.class)
     public final ResponseEntity<String> handleAccessDeniedException(final AccessDeniedException exception) {
-        rollbar.error(exception.getMessage());
+        errorReporter.clientError(exception.getMessage());
         return new ResponseEntity<>(exception.getMessage(), new HttpHeaders(), HttpStatus.FORBIDDEN);
     }
 
@@ -0,0 +1,247 @@
+package hexlet.code.component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hexlet.code.dto.ChangeDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes committed changes of tasks, statuses and labels to the subscribed clients as Server-Sent Events.
+ * A change is serialized once and queued for every subscriber that asked for its entity. Each subscriber has a
+ * bounded queue drained by its own sender thread while there is something to send, so a client that doesn't read
+ * only blocks its own sends. A subscriber whose queue overflows or whose send takes longer than the send timeout is
+ * disconnected instead of holding back the others. The latest changes are kept, so a client that reconnects with
+ * the id of the last event it has seen gets what it missed, or a reset event when that is no longer known.
+ */
+@Component
+public class ChangeFeed {
+
+    public static final String METRIC = "changes";
+    public static final String RESET_EVENT = "reset";
+
+    private final ObjectMapper objectMapper;
+    private final int historySize;
+    private final int bufferSize;
+    private final long emitterTimeoutMs;
+    private final Deque<Event> history = new ArrayDeque<>();
+    private final Set<Subscriber> subscribers = new CopyOnWriteArraySet<>();
+    private final ExecutorService senders;
+    private final ScheduledExecutorService timer;
+    private final Counter overflows;
+    private final Counter stalls;
+    // ids keep growing across restarts, an id from before a restart is older than any in the history
+    private long lastId = System.currentTimeMillis() * 1000;
+
+    public ChangeFeed(final ObjectMapper objectMapper, final MeterRegistry meterRegistry,
+                      @Value("${changes.history-size:1000}") final int historySize,
+                      @Value("${changes.buffer-size:256}") final int bufferSize,
+                      @Value("${changes.heartbeat-sec:15}") final long heartbeatSec,
+                      @Value("${changes.emitter-timeout-ms:1800000}") final long emitterTimeoutMs,
+                      @Value("${changes.send-timeout-ms:10000}") final long sendTimeoutMs) {
+        this.objectMapper = objectMapper;
+        this.historySize = historySize;
+        this.bufferSize = bufferSize;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        final AtomicInteger threadNumber = new AtomicInteger();
+        this.senders = Executors.newCachedThreadPool(runnable -> {
+            final Thread thread = new Thread(runnable, "change-feed-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "change-feed-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.scheduleAtFixedRate(this::heartbeat, heartbeatSec, heartbeatSec, TimeUnit.SECONDS);
+        timer.scheduleAtFixedRate(() -> disconnectStalled(TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs)),
+                sendTimeoutMs, sendTimeoutMs, TimeUnit.MILLISECONDS);
+        this.overflows = meterRegistry.counter(METRIC + ".overflows");
+        this.stalls = meterRegistry.counter(METRIC + ".stalls");
+        Gauge.builder(METRIC + ".subscribers", subscribers, Set::size).register(meterRegistry);
+    }
+
+    // the data is serialized on the committing thread, while lazy associations can still be loaded
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(final ChangeDto change) {
+        final String data;
+        try {
+            data = objectMapper.writeValueAsString(change);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        synchronized (history) {
+            final Event event = new Event(++lastId, change.entity(), data);
+            history.addLast(event);
+            if (history.size() > historySize) {
+                history.removeFirst();
+            }
+            subscribers.forEach(subscriber -> subscriber.publish(event));
+        }
+    }
+
+    public SseEmitter subscribe(final Set<String> entities, final Long lastEventId) {
+        final Subscriber subscriber = new Subscriber(new SseEmitter(emitterTimeoutMs), entities);
+        final SseEmitter emitter = subscriber.emitter;
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+
+        // replayed and registered under the lock, so that no change is missed or sent twice
+        synchronized (history) {
+            if (lastEventId != null) {
+                replay(subscriber, lastEventId);
+            }
+            subscribers.add(subscriber);
+        }
+        return emitter;
+    }
+
+    @PreDestroy
+    public void close() {
+        timer.shutdown();
+        subscribers.forEach(Subscriber::disconnect);
+        senders.shutdown();
+    }
+
+    int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    private void replay(final Subscriber subscriber, final long lastEventId) {
+        final boolean known = lastEventId == lastId
+                || !history.isEmpty() && lastEventId >= history.getFirst().id() - 1 && lastEventId < lastId;
+        if (!known) {
+            subscriber.offer(SseEmitter.event().id(String.valueOf(lastId)).name(RESET_EVENT).data("{}"));
+            return;
+        }
+        history.stream()
+                .filter(event -> event.id() > lastEventId)
+                .forEach(subscriber::publish);
+    }
+
+    private void heartbeat() {
+        subscribers.forEach(subscriber -> subscriber.offer(SseEmitter.event().comment("heartbeat")));
+    }
+
+    private void disconnectStalled(final long sendTimeoutNanos) {
+        final long now = System.nanoTime();
+        subscribers.stream()
+                .filter(subscriber -> subscriber.isSendingSince(now - sendTimeoutNanos))
+                .forEach(subscriber -> {
+                    stalls.increment();
+                    subscriber.disconnect();
+                });
+    }
+
+    private record Event(long id, String entity, String data) {
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Set<String> entities;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> queue = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean disconnected;
+        // System.nanoTime() when the current send has started, 0 between sends
+        private volatile long sendStartedAt;
+
+        private Subscriber(final SseEmitter emitter, final Set<String> entities) {
+            this.emitter = emitter;
+            this.entities = entities;
+        }
+
+        private void publish(final Event event) {
+            if (!entities.contains(event.entity())) {
+                return;
+            }
+            if (!offer(SseEmitter.event().id(String.valueOf(event.id())).data(event.data(),
+                    MediaType.APPLICATION_JSON))) {
+                // the client reconnects with the last id it has received and catches up from the history
+                overflows.increment();
+                disconnect();
+            }
+        }
+
+        private boolean offer(final SseEmitter.SseEventBuilder event) {
+            final boolean offered = queue.offer(event);
+            if (offered) {
+                scheduleDrain();
+            }
+            return offered;
+        }
+
+        private boolean isSendingSince(final long time) {
+            final long startedAt = sendStartedAt;
+            return startedAt != 0 && startedAt - time < 0;
+        }
+
+        // the emitter is locked while it sends, so it is completed by the sender once the blocked send has returned
+        private void disconnect() {
+            subscribers.remove(this);
+            disconnected = true;
+            queue.clear();
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                SseEmitter.SseEventBuilder event = queue.poll();
+                while (event != null && !disconnected) {
+                    sendStartedAt = System.nanoTime();
+                    emitter.send(event);
+                    sendStartedAt = 0;
+                    event = queue.poll();
+                }
+            } catch (IOException | IllegalStateException e) {
+                // the emitter has already been completed
+                subscribers.remove(this);
+                queue.clear();
+                return;
+            } finally {
+                sendStartedAt = 0;
+            }
+            if (disconnected) {
+                // draining stays set, nothing is sent after the completion
+                emitter.complete();
+                return;
+            }
+            draining.set(false);
+            if (!queue.isEmpty() || disconnected) {
+                scheduleDrain();
+            }
+        }
+
+    }
+
+}
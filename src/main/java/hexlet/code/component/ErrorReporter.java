@@ -0,0 +1,107 @@
+package hexlet.code.component;
+
+import com.rollbar.api.payload.data.Level;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Reports errors to the {@link ErrorSink} off the request thread.
+ * Identical errors are counted within a time window and sent once per window with their count.
+ * The number of distinct errors per window is bounded, anything beyond it is dropped.
+ * Client errors are sampled, as they are usually caused by the caller and not by the application.
+ */
+@Component
+public class ErrorReporter {
+
+    public static final String METRIC = "errors.reported";
+
+    private final ErrorSink errorSink;
+    private final int maxDistinctErrors;
+    private final double clientErrorSampleRate;
+    private final AtomicReference<Map<Event, LongAdder>> window = new AtomicReference<>(new ConcurrentHashMap<>());
+    private final ScheduledExecutorService scheduler;
+    private final Counter sent;
+    private final Counter dropped;
+    private final Counter sampledOut;
+
+    public ErrorReporter(final ErrorSink errorSink, final MeterRegistry meterRegistry,
+                         @Value("${errors.window-sec:10}") final long windowSec,
+                         @Value("${errors.max-distinct:1000}") final int maxDistinctErrors,
+                         @Value("${errors.client-error-sample-rate:0.1}") final double clientErrorSampleRate) {
+        this.errorSink = errorSink;
+        this.maxDistinctErrors = maxDistinctErrors;
+        this.clientErrorSampleRate = clientErrorSampleRate;
+        this.sent = meterRegistry.counter(METRIC, "outcome", "sent");
+        this.dropped = meterRegistry.counter(METRIC, "outcome", "dropped");
+        this.sampledOut = meterRegistry.counter(METRIC, "outcome", "sampled_out");
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "error-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::flush, windowSec, windowSec, TimeUnit.SECONDS);
+    }
+
+    public void serverError(final String message) {
+        report(Level.ERROR, message);
+    }
+
+    public void clientError(final String message) {
+        if (ThreadLocalRandom.current().nextDouble() >= clientErrorSampleRate) {
+            sampledOut.increment();
+            return;
+        }
+        report(Level.WARNING, message);
+    }
+
+    // sends what was collected in the current window and starts a new one
+    public synchronized void flush() {
+        final Map<Event, LongAdder> events = window.getAndSet(new ConcurrentHashMap<>());
+        events.forEach((event, count) -> {
+            final long total = count.sum();
+            try {
+                errorSink.send(event.level(), total == 1 ? event.message()
+                        : String.format("%s (x%d)", event.message(), total));
+                sent.increment();
+            } catch (RuntimeException e) {
+                dropped.increment();
+            }
+        });
+    }
+
+    @PreDestroy
+    public void close() {
+        scheduler.shutdown();
+        flush();
+    }
+
+    private void report(final Level level, final String message) {
+        final Map<Event, LongAdder> events = window.get();
+        final Event event = new Event(level, message);
+        LongAdder count = events.get(event);
+        if (count == null) {
+            if (events.size() >= maxDistinctErrors) {
+                dropped.increment();
+                return;
+            }
+            count = events.computeIfAbsent(event, key -> new LongAdder());
+        }
+        count.increment();
+    }
+
+    private record Event(Level level, String message) {
+    }
+
+}
@@ -0,0 +1,9 @@
+package hexlet.code.component;
+
+import com.rollbar.api.payload.data.Level;
+
+public interface ErrorSink {
+
+    void send(Level level, String message);
+
+}
@@ -1,14 +1,27 @@
 package hexlet.code.component;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Clock;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.impl.DefaultClock;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
 import java.util.Date;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import static io.jsonwebtoken.SignatureAlgorithm.HS256;
 import static io.jsonwebtoken.impl.TextCodec.BASE64;
@@ -16,21 +29,44 @@ import static io.jsonwebtoken.impl.TextCodec.BASE64;
 @Component
 public class JWTHelper {
 
+    // signature checks that missed the cache, tagged with the result
+    public static final String VERIFICATIONS_METRIC = "jwt.verifications";
+    public static final String TOKEN_CACHE_NAME = "jwtTokens";
+
     private final String secretKey;
     private final String issuer;
     private final Long expirationSec;
     private final Long clockSkewSec;
     private final Clock clock;
+    private final JwtParser parser;
+    private final MeterRegistry meterRegistry;
+    // verified claims by SHA-256 of the token, each entry lives until its token expires
+    private final Cache<ByteBuffer, Map<String, Object>> verifiedTokens;
 
     public JWTHelper(@Value("${jwt.issuer:task_manager}") final String issuer,
                      @Value("${jwt.expiration-sec:86400}") final Long expirationSec,
                      @Value("${jwt.clock-skew-sec:300}") final Long clockSkewSec,
-                     @Value("${jwt.secret:secret}") final String secret) {
+                     @Value("${jwt.secret:secret}") final String secret,
+                     @Value("${jwt.cache.max-size:10000}") final Long cacheMaxSize,
+                     @Value("${jwt.cache.max-ttl-sec:600}") final Long cacheMaxTtlSec,
+                     final MeterRegistry meterRegistry) {
         this.secretKey = BASE64.encode(secret);
         this.issuer = issuer;
         this.expirationSec = expirationSec;
         this.clockSkewSec = clockSkewSec;
         this.clock = DefaultClock.INSTANCE;
+        this.parser = Jwts.parser()
+                .requireIssuer(issuer)
+                .setClock(clock)
+                .setAllowedClockSkewSeconds(clockSkewSec)
+                .setSigningKey(secretKey);
+        this.meterRegistry = meterRegistry;
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new TokenExpiry(clock, TimeUnit.SECONDS.toNanos(cacheMaxTtlSec)))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, TOKEN_CACHE_NAME);
     }
 
     public String expiring(final Map<String, Object> attributes) {
@@ -41,13 +77,19 @@ public class JWTHelper {
     }
 
     public Map<String, Object> verify(final String token) {
-        return Jwts.parser()
-                .requireIssuer(issuer)
-                .setClock(clock)
-                .setAllowedClockSkewSeconds(clockSkewSec)
-                .setSigningKey(secretKey)
-                .parseClaimsJws(token)
-                .getBody();
+        return verifiedTokens.get(hash(token), key -> verifySignature(token));
+    }
+
+    private Map<String, Object> verifySignature(final String token) {
+        final Timer.Sample sample = Timer.start();
+        String result = "failure";
+        try {
+            final Map<String, Object> claims = Collections.unmodifiableMap(parser.parseClaimsJws(token).getBody());
+            result = "success";
+            return claims;
+        } finally {
+            sample.stop(meterRegistry.timer(VERIFICATIONS_METRIC, "result", result));
+        }
     }
 
     private Claims getClaims(final Map<String, Object> attributes, final Long expiresInSec) {
@@ -61,4 +103,39 @@ public class JWTHelper {
         return claims;
     }
 
+    private static ByteBuffer hash(final String token) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return ByteBuffer.wrap(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record TokenExpiry(Clock clock, long maxTtlNanos) implements Expiry<ByteBuffer, Map<String, Object>> {
+
+        @Override
+        public long expireAfterCreate(final ByteBuffer key, final Map<String, Object> claims, final long currentTime) {
+            final Object exp = claims.get(Claims.EXPIRATION);
+            if (!(exp instanceof Number)) {
+                return maxTtlNanos;
+            }
+            final long ttlMillis = ((Number) exp).longValue() * 1000 - clock.now().getTime();
+            return Math.max(0, Math.min(TimeUnit.MILLISECONDS.toNanos(ttlMillis), maxTtlNanos));
+        }
+
+        @Override
+        public long expireAfterUpdate(final ByteBuffer key, final Map<String, Object> claims,
+                                      final long currentTime, final long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(final ByteBuffer key, final Map<String, Object> claims,
+                                    final long currentTime, final long currentDuration) {
+            return currentDuration;
+        }
+
+    }
+
 }
@@ -0,0 +1,81 @@
+package hexlet.code.component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import hexlet.code.exeption.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limits login attempts in fixed windows, before any password is hashed.
+ * Every attempt counts against the client address. Failed ones count against the email from that address,
+ * so failures sent from elsewhere can not lock a user out, and guessing the password of one user from many
+ * addresses is still bounded by the limit per address.
+ */
+@Component
+public class LoginThrottle {
+
+    public static final String METRIC = "login.throttled";
+
+    private static final int MAX_TRACKED_KEYS = 100_000;
+
+    private final int maxAttemptsPerAddress;
+    private final int maxFailuresPerEmail;
+    private final long windowSec;
+    private final Cache<String, AtomicInteger> attemptsByAddress;
+    private final Cache<String, AtomicInteger> failuresByEmailAndAddress;
+    private final Counter throttledByAddress;
+    private final Counter throttledByEmail;
+
+    public LoginThrottle(final MeterRegistry meterRegistry,
+                         @Value("${login.throttle.max-attempts-per-address:100}") final int maxAttemptsPerAddress,
+                         @Value("${login.throttle.max-failures-per-email:5}") final int maxFailuresPerEmail,
+                         @Value("${login.throttle.window-sec:60}") final long windowSec) {
+        this.maxAttemptsPerAddress = maxAttemptsPerAddress;
+        this.maxFailuresPerEmail = maxFailuresPerEmail;
+        this.windowSec = windowSec;
+        // the counter is only ever created once per window, so expiring after write closes the window
+        this.attemptsByAddress = newWindow();
+        this.failuresByEmailAndAddress = newWindow();
+        this.throttledByAddress = meterRegistry.counter(METRIC, "key", "address");
+        this.throttledByEmail = meterRegistry.counter(METRIC, "key", "email");
+    }
+
+    public void checkAttempt(final String address, final String email) {
+        if (attemptsByAddress.get(address, key -> new AtomicInteger()).incrementAndGet() > maxAttemptsPerAddress) {
+            throttledByAddress.increment();
+            throw new TooManyRequestsException("Too many login attempts from this address", windowSec);
+        }
+        final AtomicInteger failures = failuresByEmailAndAddress.getIfPresent(failureKey(address, email));
+        if (failures != null && failures.get() >= maxFailuresPerEmail) {
+            throttledByEmail.increment();
+            throw new TooManyRequestsException("Too many failed login attempts for this user", windowSec);
+        }
+    }
+
+    public void loginFailed(final String address, final String email) {
+        failuresByEmailAndAddress.get(failureKey(address, email), key -> new AtomicInteger()).incrementAndGet();
+    }
+
+    public void loginSucceeded(final String address, final String email) {
+        failuresByEmailAndAddress.invalidate(failureKey(address, email));
+    }
+
+    private Cache<String, AtomicInteger> newWindow() {
+        return Caffeine.newBuilder()
+                .maximumSize(MAX_TRACKED_KEYS)
+                .expireAfterWrite(Duration.ofSeconds(windowSec))
+                .build();
+    }
+
+    // an email can not contain a space, so the key is unambiguous
+    private static String failureKey(final String address, final String email) {
+        return (email == null ? "" : email.trim().toLowerCase()) + " " + address;
+    }
+
+}
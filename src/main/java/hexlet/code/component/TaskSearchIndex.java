@@ -0,0 +1,151 @@
+package hexlet.code.component;
+
+import hexlet.code.repository.TaskText;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * In-memory full-text index over task names and descriptions.
+ * It is filled on startup by {@link TaskSearchIndexLoader} and kept in sync by {@link TaskSearchIndexListener}.
+ * <p>
+ * The index only sees the writes of its own JVM, so the application has to run as a single instance: a task
+ * written on another instance would never be found here. The instance is named by {@value #INSTANCE}, taken from
+ * {@code DYNO} on Heroku, and any other web dyno than the first refuses to start. Writes that bypass the JPA
+ * entities, such as bulk JPQL updates or Liquibase data changes, are only picked up by the rebuild on the next start.
+ */
+@Slf4j
+@Component
+public class TaskSearchIndex {
+
+    public static final String INSTANCE = "search.instance";
+
+    private static final Pattern INSTANCE_NUMBER = Pattern.compile("web\\.(\\d+)");
+    private static final String ID = "id";
+    private static final String NAME = "name";
+    private static final String DESCRIPTION = "description";
+    private static final Map<String, Float> FIELD_WEIGHTS = Map.of(NAME, 2f, DESCRIPTION, 1f);
+
+    private final Analyzer analyzer;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+
+    public TaskSearchIndex(@Value("${" + INSTANCE + ":}") final String instance) throws IOException {
+        final Matcher number = INSTANCE_NUMBER.matcher(instance);
+        if (number.matches() && Integer.parseInt(number.group(1)) != 1) {
+            throw new IllegalStateException(String.format(
+                    "The task search index is kept in memory and needs a single instance, found instance '%s'",
+                    instance));
+        }
+        this.analyzer = new StandardAnalyzer();
+        this.writer = new IndexWriter(new ByteBuffersDirectory(), new IndexWriterConfig(analyzer));
+        this.searcherManager = new SearcherManager(writer, null);
+    }
+
+    // the old documents stay searchable until the new ones are all written
+    public void rebuild(final Stream<TaskText> tasks) throws IOException {
+        writer.deleteAll();
+        tasks.forEach(task -> index(task.getId(), task.getName(), task.getDescription()));
+        refresh();
+        log.info("Task search index rebuilt with {} documents", writer.getDocStats().numDocs);
+    }
+
+    // writes and removals become searchable on the next refresh
+    public void index(final long id, final String name, final String description) {
+        final Document document = new Document();
+        document.add(new StringField(ID, String.valueOf(id), Field.Store.YES));
+        if (name != null) {
+            document.add(new TextField(NAME, name, Field.Store.NO));
+        }
+        if (description != null) {
+            document.add(new TextField(DESCRIPTION, description, Field.Store.NO));
+        }
+        try {
+            writer.updateDocument(new Term(ID, String.valueOf(id)), document);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void remove(final long id) {
+        try {
+            writer.deleteDocuments(new Term(ID, String.valueOf(id)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void refresh() {
+        try {
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // ids of the matching tasks, best first, handed over in pages until the consumer returns false;
+    // every word of the text has to match
+    public void search(final String text, final int pageSize, final Predicate<List<Long>> consumer) {
+        final SimpleQueryParser parser = new SimpleQueryParser(analyzer, FIELD_WEIGHTS);
+        parser.setDefaultOperator(BooleanClause.Occur.MUST);
+        final Query query = parser.parse(text);
+
+        try {
+            final IndexSearcher searcher = searcherManager.acquire();
+            try {
+                ScoreDoc after = null;
+                boolean more = true;
+                while (more) {
+                    final ScoreDoc[] hits = searcher.searchAfter(after, query, pageSize).scoreDocs;
+                    if (hits.length == 0) {
+                        return;
+                    }
+                    final List<Long> ids = new ArrayList<>();
+                    for (ScoreDoc scoreDoc : hits) {
+                        ids.add(Long.valueOf(searcher.storedFields().document(scoreDoc.doc).get(ID)));
+                    }
+                    after = hits[hits.length - 1];
+                    more = consumer.test(ids) && hits.length == pageSize;
+                }
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        searcherManager.close();
+        writer.close();
+    }
+
+}
@@ -0,0 +1,71 @@
+package hexlet.code.component;
+
+import hexlet.code.model.Task;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps {@link TaskSearchIndex} in sync with the tasks table.
+ * Changes reach the index only after the transaction commits, so rolled back writes never show up in searches.
+ */
+@Component
+@AllArgsConstructor
+public class TaskSearchIndexListener {
+
+    private final TaskSearchIndex taskSearchIndex;
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(final Task task) {
+        final long id = task.getId();
+        final String name = task.getName();
+        final String description = task.getDescription();
+        afterCommit(() -> taskSearchIndex.index(id, name, description));
+    }
+
+    @PostRemove
+    public void onRemove(final Task task) {
+        final long id = task.getId();
+        afterCommit(() -> taskSearchIndex.remove(id));
+    }
+
+    // the changes of a transaction are applied together, with one refresh of the searcher
+    private void afterCommit(final Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            taskSearchIndex.refresh();
+            return;
+        }
+        TransactionSynchronizationManager.getSynchronizations().stream()
+                .filter(PendingChanges.class::isInstance)
+                .map(PendingChanges.class::cast)
+                .findFirst()
+                .orElseGet(() -> {
+                    final PendingChanges pending = new PendingChanges();
+                    TransactionSynchronizationManager.registerSynchronization(pending);
+                    return pending;
+                })
+                .actions.add(action);
+    }
+
+    private final class PendingChanges implements TransactionSynchronization {
+
+        private final List<Runnable> actions = new ArrayList<>();
+
+        @Override
+        public void afterCommit() {
+            actions.forEach(Runnable::run);
+            taskSearchIndex.refresh();
+        }
+
+    }
+
+}
@@ -0,0 +1,30 @@
+package hexlet.code.component;
+
+import hexlet.code.repository.TaskRepository;
+import hexlet.code.repository.TaskText;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.util.stream.Stream;
+
+@Component
+@AllArgsConstructor
+public class TaskSearchIndexLoader {
+
+    private final TaskRepository taskRepository;
+
+    private final TaskSearchIndex taskSearchIndex;
+
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() throws IOException {
+        try (Stream<TaskText> tasks = taskRepository.streamAllBy()) {
+            taskSearchIndex.rebuild(tasks);
+        }
+    }
+
+}
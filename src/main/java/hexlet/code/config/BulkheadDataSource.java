@@ -0,0 +1,104 @@
+package hexlet.code.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Lets at most the given number of callers hold a connection at a time, the rest wait in a fair queue.
+ * A waiting virtual thread is just a parked continuation, so thousands of requests can queue here
+ * without occupying the connection pool, which fails them after its own timeout.
+ * The permit is returned when the connection is closed.
+ */
+public final class BulkheadDataSource extends DelegatingDataSource {
+
+    public static final String METRIC = "datasource.bulkhead";
+
+    private final Semaphore permits;
+    private final long waitTimeoutMs;
+
+    public BulkheadDataSource(final DataSource dataSource, final int permits, final long waitTimeoutMs) {
+        super(dataSource);
+        this.permits = new Semaphore(permits, true);
+        this.waitTimeoutMs = waitTimeoutMs;
+    }
+
+    // tagged like the pool metrics, gauges with the same name and tags would be registered only once
+    public void bindTo(final MeterRegistry meterRegistry, final String name) {
+        Gauge.builder(METRIC + ".waiting", permits, Semaphore::getQueueLength)
+                .tag("name", name)
+                .register(meterRegistry);
+        Gauge.builder(METRIC + ".available", permits, Semaphore::availablePermits)
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return releasingOnClose(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(final String username, final String password) throws SQLException {
+        acquire();
+        try {
+            return releasingOnClose(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    int getWaitingCount() {
+        return permits.getQueueLength();
+    }
+
+    private void acquire() throws SQLException {
+        try {
+            if (!permits.tryAcquire(waitTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException(
+                        String.format("No connection available within %d ms", waitTimeoutMs));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a connection", e);
+        }
+    }
+
+    private Connection releasingOnClose(final Connection connection) {
+        final AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if ("close".equals(method.getName()) && released.compareAndSet(false, true)) {
+                        try {
+                            connection.close();
+                        } finally {
+                            permits.release();
+                        }
+                        return null;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+
+}
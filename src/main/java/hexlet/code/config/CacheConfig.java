@@ -0,0 +1,81 @@
+package hexlet.code.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String USERS_BY_EMAIL = "usersByEmail";
+
+    // Hibernate second-level cache regions
+    public static final String STATUSES_REGION = "statuses";
+    public static final String LABELS_REGION = "labels";
+    public static final String TASK_LABELS_REGION = "taskLabels";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${cache.max-size:10000}") final long maxSize,
+                                     @Value("${cache.ttl-sec:600}") final long ttlSec) {
+        final CaffeineCacheManager cacheManager = new CaffeineCacheManager(USERS_BY_EMAIL);
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSec))
+                .recordStats());
+        // evictions by a writing transaction happen after its commit, a concurrent read can't cache the old row again
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+
+    // the JCache manager gets its own URI, so each application context has its own regions.
+    // The regions live in the memory of one JVM and only see the writes made through it, the application runs
+    // as a single instance (see TaskSearchIndex). Writes from elsewhere (another instance, SQL, a migration)
+    // are seen once the entries expire, so the TTL is the same as for the other caches.
+    @Bean(destroyMethod = "close")
+    public javax.cache.CacheManager entityCacheManager(@Value("${cache.entities.max-size:10000}") final long maxSize,
+                                                       @Value("${cache.entities.ttl-sec:${cache.ttl-sec:600}}")
+                                                       final long ttlSec) {
+        final CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        final javax.cache.CacheManager cacheManager = provider.getCacheManager(
+                URI.create("hibernate-" + UUID.randomUUID()), getClass().getClassLoader());
+
+        final CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maxSize));
+        configuration.setExpireAfterWrite(OptionalLong.of(Duration.ofSeconds(ttlSec).toNanos()));
+        configuration.setStatisticsEnabled(true);
+        for (String region : List.of(STATUSES_REGION, LABELS_REGION, TASK_LABELS_REGION)) {
+            cacheManager.createCache(region, configuration);
+        }
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(final javax.cache.CacheManager entityCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, entityCacheManager);
+            // a region missing here is a mistake in the mapping, not something to create with defaults
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+}
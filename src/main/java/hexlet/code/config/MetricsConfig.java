@@ -0,0 +1,19 @@
+package hexlet.code.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    // timer of @Timed service classes, tagged with class and method
+    public static final String SERVICE_METRIC = "app.service";
+
+    @Bean
+    public TimedAspect timedAspect(final MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+}
@@ -0,0 +1,85 @@
+package hexlet.code.config;
+
+import io.r2dbc.h2.H2ConnectionConfiguration;
+import io.r2dbc.h2.H2ConnectionFactory;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+/**
+ * Non-blocking access to the same database as JPA, for the reactive read endpoints.
+ * The connection settings are derived from the JDBC ones, {@code spring.r2dbc.url} overrides them.
+ * The pool is not exposed as a {@link ConnectionFactory} bean: Spring Boot would take it for the primary database
+ * and back off from configuring the JDBC DataSource.
+ * The pool always connects to the primary, next to the JDBC pool and outside the bulkhead and the replica routing,
+ * so the database has to accept both pools. It is small by default, {@code spring.r2dbc.pool.max-size} sizes it.
+ */
+@Configuration
+public class R2dbcConfig {
+
+    private static final String JDBC_PREFIX = "jdbc:";
+    private static final String H2_PREFIX = JDBC_PREFIX + "h2:";
+
+    private final ConnectionPool connectionPool;
+
+    public R2dbcConfig(final DataSourceProperties dataSourceProperties,
+                       @Value("${spring.r2dbc.url:}") final String url,
+                       @Value("${spring.r2dbc.username:}") final String username,
+                       @Value("${spring.r2dbc.password:}") final String password,
+                       @Value("${spring.r2dbc.pool.max-size:4}") final int maxSize) {
+        final ConnectionFactory connectionFactory = url.isEmpty()
+                ? fromJdbc(dataSourceProperties.determineUrl(), dataSourceProperties.determineUsername(),
+                        dataSourceProperties.determinePassword())
+                : withCredentials(ConnectionFactoryOptions.parse(url), username, password);
+        this.connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(connectionFactory)
+                .maxSize(maxSize)
+                .build());
+    }
+
+    @Bean
+    public DatabaseClient reactiveDatabaseClient() {
+        return DatabaseClient.create(connectionPool);
+    }
+
+    @PreDestroy
+    public void close() {
+        connectionPool.dispose();
+    }
+
+    private static ConnectionFactory fromJdbc(final String jdbcUrl, final String username, final String password) {
+        if (jdbcUrl.startsWith(H2_PREFIX)) {
+            return new H2ConnectionFactory(H2ConnectionConfiguration.builder()
+                    .url(jdbcUrl.substring(H2_PREFIX.length()))
+                    .username(nullToEmpty(username))
+                    .password(nullToEmpty(password))
+                    .build());
+        }
+        return withCredentials(ConnectionFactoryOptions.parse("r2dbc:" + jdbcUrl.substring(JDBC_PREFIX.length())),
+                username, password);
+    }
+
+    private static ConnectionFactory withCredentials(final ConnectionFactoryOptions options, final String username,
+                                                     final String password) {
+        final ConnectionFactoryOptions.Builder builder = options.mutate();
+        if (username != null && !username.isEmpty()) {
+            builder.option(ConnectionFactoryOptions.USER, username);
+        }
+        if (password != null && !password.isEmpty()) {
+            builder.option(ConnectionFactoryOptions.PASSWORD, password);
+        }
+        return ConnectionFactories.get(builder.build());
+    }
+
+    private static String nullToEmpty(final String value) {
+        return value == null ? "" : value;
+    }
+
+}
@@ -0,0 +1,98 @@
+package hexlet.code.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManager;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.PriorityOrdered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+
+/**
+ * Serves the finders marked with {@link ReplicaRead} from a replica, when {@value #URL} is set. Everything else,
+ * including the other read-only transactions, stays on the primary.
+ * The {@link BulkheadDataSource} of virtual threads then covers both pools, its permits are best raised to
+ * their sum.
+ */
+@Configuration
+@ConditionalOnProperty(name = ReadReplicaConfig.URL)
+public class ReadReplicaConfig {
+
+    public static final String URL = "datasource.replica.url";
+
+    @Bean
+    public static RoutingPostProcessor readReplicaDataSourcePostProcessor(
+            @Value("${" + URL + "}") final String url,
+            @Value("${datasource.replica.username:${spring.datasource.username:}}") final String username,
+            @Value("${datasource.replica.password:${spring.datasource.password:}}") final String password,
+            @Value("${datasource.replica.maximum-pool-size:10}") final int maximumPoolSize,
+            @Value("${datasource.replica.max-lag-ms:5000}") final long maxLagMs) {
+        final HikariDataSource replica = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        replica.setPoolName("replica");
+        replica.setMaximumPoolSize(maximumPoolSize);
+        replica.setReadOnly(true);
+        return new RoutingPostProcessor(replica, maxLagMs);
+    }
+
+    @Bean
+    public ReplicaReadAspect replicaReadAspect(final PlatformTransactionManager transactionManager,
+                                               final EntityManager entityManager) {
+        return new ReplicaReadAspect(transactionManager, entityManager);
+    }
+
+    // a connection is taken per transaction instead of once per request, otherwise the first transaction of
+    // a request would pick the database for all the others
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionAfterTransactionCustomizer() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    // applied before the other post processors, so a bulkhead wraps the routing and not the other way round
+    public static final class RoutingPostProcessor implements BeanPostProcessor, PriorityOrdered, DisposableBean {
+
+        private final HikariDataSource replica;
+        private final long maxLagMs;
+
+        private RoutingPostProcessor(final HikariDataSource replica, final long maxLagMs) {
+            this.replica = replica;
+            this.maxLagMs = maxLagMs;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+            if (bean instanceof DataSource primary && !(bean instanceof LazyConnectionDataSourceProxy)) {
+                return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primary, replica, maxLagMs));
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+
+        @Override
+        public void destroy() {
+            replica.close();
+        }
+
+    }
+
+}
@@ -0,0 +1,85 @@
+package hexlet.code.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Sends the read-only transactions of {@link ReplicaRead} finders to the replica and everything else to the
+ * primary. A user who has committed a write within the replication lag keeps reading from the primary, so they
+ * see their own changes.
+ * The transaction attributes are only known once it has begun, so this needs to sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route {
+        PRIMARY,
+        REPLICA
+    }
+
+    // set by ReplicaReadAspect while a ReplicaRead finder runs on this thread
+    private static final ThreadLocal<Boolean> REPLICA_READ = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    // the users who have written lately, forgotten once the replica has caught up
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadWriteRoutingDataSource(final DataSource primary, final DataSource replica, final long maxLagMs) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(maxLagMs))
+                .build();
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Route determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return Route.PRIMARY;
+        }
+        final String user = currentUser();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (user != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+                // the lag is counted from the commit, not from the start of the transaction
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        recentWriters.put(user, Boolean.TRUE);
+                    }
+                });
+            }
+            return Route.PRIMARY;
+        }
+        if (!isReplicaRead()) {
+            return Route.PRIMARY;
+        }
+        return user != null && recentWriters.getIfPresent(user) != null ? Route.PRIMARY : Route.REPLICA;
+    }
+
+    static boolean isReplicaRead() {
+        return REPLICA_READ.get();
+    }
+
+    static void setReplicaRead(final boolean replicaRead) {
+        if (replicaRead) {
+            REPLICA_READ.set(Boolean.TRUE);
+        } else {
+            REPLICA_READ.remove();
+        }
+    }
+
+    private static String currentUser() {
+        final Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null ? null : authentication.getName();
+    }
+
+}
@@ -0,0 +1,20 @@
+package hexlet.code.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Lets a read-only finder be served by the replica, when one is configured. Only lists that may lag behind by
+ * the replication lag are marked: reads that decide about a write, check permissions or fill a cache stay on
+ * the primary.
+ *
+ * @see ReplicaReadAspect
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReplicaRead {
+}
@@ -0,0 +1,56 @@
+package hexlet.code.config;
+
+import jakarta.persistence.EntityManager;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.UndeclaredThrowableException;
+
+/**
+ * Runs the methods marked with {@link ReplicaRead} in a read-only transaction that
+ * {@link ReadWriteRoutingDataSource} may send to the replica. The transaction is begun here, so it doesn't matter
+ * whether this aspect is applied inside or outside of {@code @Transactional}. What is read from the replica can be
+ * older than the second-level cache, so it is only read from the cache and never put into it.
+ */
+@Aspect
+public class ReplicaReadAspect {
+
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+
+    public ReplicaReadAspect(final PlatformTransactionManager transactionManager,
+                             final EntityManager entityManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.entityManager = entityManager;
+    }
+
+    @Around("@annotation(hexlet.code.config.ReplicaRead)")
+    public Object readFromReplica(final ProceedingJoinPoint joinPoint) throws Throwable {
+        if (ReadWriteRoutingDataSource.isReplicaRead()) {
+            return joinPoint.proceed();
+        }
+        return transactionTemplate.execute(status -> {
+            final Session session = entityManager.unwrap(Session.class);
+            final CacheMode cacheMode = session.getCacheMode();
+            session.setCacheMode(CacheMode.GET);
+            ReadWriteRoutingDataSource.setReplicaRead(true);
+            try {
+                return joinPoint.proceed();
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new UndeclaredThrowableException(e);
+            } finally {
+                ReadWriteRoutingDataSource.setReplicaRead(false);
+                session.setCacheMode(cacheMode);
+            }
+        });
+    }
+
+}
@@ -0,0 +1,81 @@
+package hexlet.code.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs every request on its own virtual thread instead of Tomcat's platform thread pool, so a request blocked
+ * on JDBC or on password hashing does not hold a scarce thread. Concurrency is then bounded by the database,
+ * which is guarded by a {@link BulkheadDataSource}. Virtual threads need Java 21, on older runtimes the
+ * application keeps the thread pool and logs a warning.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = VirtualThreadsConfig.ENABLED, havingValue = "true")
+public class VirtualThreadsConfig {
+
+    // the same switch as in Spring Boot 3.2+
+    public static final String ENABLED = "spring.threads.virtual.enabled";
+
+    private final ExecutorService executor = newVirtualThreadPerTaskExecutor();
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadsProtocolHandlerCustomizer() {
+        return protocolHandler -> {
+            if (executor != null) {
+                protocolHandler.setExecutor(executor);
+            }
+        };
+    }
+
+    // the permits default to the size of the connection pool, so no caller ever waits inside the pool;
+    // the registry is looked up only once a data source is wrapped, a post processor is created too early for it
+    @Bean
+    public static BeanPostProcessor bulkheadDataSourcePostProcessor(
+            @Value("${datasource.bulkhead.permits:${spring.datasource.hikari.maximum-pool-size:10}}") final int permits,
+            @Value("${datasource.bulkhead.wait-timeout-ms:30000}") final long waitTimeoutMs,
+            final ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof BulkheadDataSource)) {
+                    final BulkheadDataSource bulkhead = new BulkheadDataSource(dataSource, permits, waitTimeoutMs);
+                    meterRegistry.ifAvailable(registry -> bulkhead.bindTo(registry, beanName));
+                    return bulkhead;
+                }
+                return bean;
+            }
+        };
+    }
+
+    @PreDestroy
+    public void close() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    // the project targets Java 17, so the Java 21 API is looked up at runtime
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            log.warn("Virtual threads are not available on Java {}, requests run on the thread pool",
+                    Runtime.version().feature());
+            return null;
+        }
+    }
+
+}
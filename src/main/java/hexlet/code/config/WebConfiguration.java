@@ -1,15 +1,30 @@
 package hexlet.code.config;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
 import org.springframework.web.servlet.resource.PathResourceResolver;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
 @Configuration
 public class WebConfiguration implements WebMvcConfigurer {
 
+    private static final int RESOLVED_RESOURCES_CACHE_SIZE = 1000;
+
     private final String baseApiPath;
 
     public WebConfiguration(@Value("${base-url}") String baseApiPath) {
@@ -18,28 +33,103 @@ public class WebConfiguration implements WebMvcConfigurer {
 
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        // the bundler puts a content hash into every file name under /static,
+        // a new build gets new urls, so the browser never has to revalidate these
         registry
                 .addResourceHandler("/static/**")
-                .addResourceLocations("classpath:/static/static/");
+                .setCacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable())
+                .addResourceLocations("classpath:/static/static/")
+                .resourceChain(true, resolvedResourcesCache("static"))
+                .addResolver(new EncodedResourceResolver());
 
         registry
                 .addResourceHandler("/*.*")
-                .addResourceLocations("classpath:/static/");
+                .setCacheControl(CacheControl.noCache())
+                .addResourceLocations("classpath:/static/")
+                .resourceChain(true, resolvedResourcesCache("root"))
+                .addResolver(new EncodedResourceResolver());
 
+        // the shell refers to the current bundle, so it is always revalidated with Last-Modified
         registry
                 .addResourceHandler("/", "/**")
-                .setCachePeriod(0)
+                .setCacheControl(CacheControl.noCache())
                 .addResourceLocations("classpath:/static/index.html")
-                .resourceChain(true)
+                .resourceChain(true, resolvedResourcesCache("shell"))
+                .addResolver(new EncodedResourceResolver())
                 .addResolver(new PathResourceResolver() {
+                    private final Map<Resource, Resource> shells = new ConcurrentHashMap<>();
+
                     @Override
                     protected Resource getResource(String resourcePath, Resource location) {
                         if (resourcePath.startsWith(baseApiPath) || resourcePath.startsWith(baseApiPath.substring(1))) {
                             return null;
                         }
 
-                        return location.exists() && location.isReadable() ? location : null;
+                        return location.exists() && location.isReadable()
+                                ? shells.computeIfAbsent(location, InMemoryResource::new) : null;
                     }
                 });
     }
+
+    // the default cache of the resource chain grows with every distinct path, and any path is served by the shell
+    private static Cache resolvedResourcesCache(final String name) {
+        return new CaffeineCache(name, Caffeine.newBuilder().maximumSize(RESOLVED_RESOURCES_CACHE_SIZE).build());
+    }
+
+    // a copy of a small classpath resource kept in memory, along with its pre-compressed variants
+    private static final class InMemoryResource extends ByteArrayResource {
+
+        private final Resource original;
+        private final long lastModified;
+        private final Map<String, Resource> relatives = new ConcurrentHashMap<>();
+
+        private InMemoryResource(final Resource original) {
+            super(readAllBytes(original), original.getDescription());
+            this.original = original;
+            this.lastModified = lastModified(original);
+        }
+
+        @Override
+        public String getFilename() {
+            return original.getFilename();
+        }
+
+        @Override
+        public long lastModified() {
+            return lastModified;
+        }
+
+        @Override
+        public Resource createRelative(final String relativePath) throws IOException {
+            final Resource relative = original.createRelative(relativePath);
+            return relative.exists() && relative.isReadable()
+                    ? relatives.computeIfAbsent(relativePath, path -> new InMemoryResource(relative)) : relative;
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            return this == other;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this);
+        }
+
+        private static byte[] readAllBytes(final Resource resource) {
+            try (InputStream inputStream = resource.getInputStream()) {
+                return inputStream.readAllBytes();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private static long lastModified(final Resource resource) {
+            try {
+                return resource.lastModified();
+            } catch (IOException e) {
+                return -1;
+            }
+        }
+    }
 }
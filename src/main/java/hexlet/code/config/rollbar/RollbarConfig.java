@@ -3,6 +3,7 @@ package hexlet.code.config.rollbar;
 import com.rollbar.notifier.Rollbar;
 import com.rollbar.notifier.config.Config;
 import com.rollbar.spring.webmvc.RollbarSpringConfigBuilder;
+import hexlet.code.component.ErrorSink;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
@@ -23,6 +24,11 @@ public class RollbarConfig {
         return new Rollbar(getRollbarConfigs(rollbarToken));
     }
 
+    @Bean
+    public ErrorSink errorSink(final Rollbar rollbar) {
+        return (level, message) -> rollbar.log(message, level);
+    }
+
     private Config getRollbarConfigs(String accessToken) {
         return RollbarSpringConfigBuilder.withAccessToken(accessToken)
                 .environment(activeProfile)
@@ -0,0 +1,97 @@
+package hexlet.code.config.security;
+
+import hexlet.code.exeption.TooManyRequestsException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the hashing of the delegate on a small dedicated pool with a bounded queue, so a burst of logins takes at
+ * most {@code threads} cores and can't hold every servlet thread busy with BCrypt.
+ * When the queue is full, or the hash doesn't start in time, the caller gets a {@link TooManyRequestsException}.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, AutoCloseable {
+
+    public static final String EXECUTOR_NAME = "password.hashing";
+
+    private static final long RETRY_AFTER_SEC = 1;
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long waitTimeoutMs;
+
+    public BoundedPasswordEncoder(final PasswordEncoder delegate, final int threads, final int queueSize,
+                                  final long waitTimeoutMs, final MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.waitTimeoutMs = waitTimeoutMs;
+        final AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), runnable -> {
+                    final Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        new ExecutorServiceMetrics(executor, EXECUTOR_NAME, List.of()).bindTo(meterRegistry);
+    }
+
+    @Override
+    public String encode(final CharSequence rawPassword) {
+        return submit(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(final CharSequence rawPassword, final String encodedPassword) {
+        return submit(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(final String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    int getQueuedCount() {
+        return executor.getQueue().size();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private <T> T submit(final Callable<T> hashing) {
+        final Future<T> future;
+        try {
+            future = executor.submit(hashing);
+        } catch (RejectedExecutionException e) {
+            throw new TooManyRequestsException("Too many password checks in progress", RETRY_AFTER_SEC);
+        }
+
+        try {
+            return future.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new TooManyRequestsException("Password check timed out", RETRY_AFTER_SEC);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new TooManyRequestsException("Password check was interrupted", RETRY_AFTER_SEC);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+}
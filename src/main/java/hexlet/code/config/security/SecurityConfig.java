@@ -1,12 +1,18 @@
 package hexlet.code.config.security;
 
 import hexlet.code.component.JWTHelper;
+import hexlet.code.component.LoginThrottle;
 import hexlet.code.filter.JWTAuthenticationFilter;
 import hexlet.code.filter.JWTAuthorizationFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
@@ -15,17 +21,25 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.Http403ForbiddenEntryPoint;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.AndRequestMatcher;
 import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.AnyRequestMatcher;
 import org.springframework.security.web.util.matcher.NegatedRequestMatcher;
 import org.springframework.security.web.util.matcher.OrRequestMatcher;
 import org.springframework.security.web.util.matcher.RequestMatcher;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static hexlet.code.controller.UserController.USER_CONTROLLER_PATH;
 
@@ -35,42 +49,72 @@ import static hexlet.code.controller.UserController.USER_CONTROLLER_PATH;
 public class SecurityConfig {
 
     public static final String LOGIN = "/login";
+    public static final String BCRYPT = "bcrypt";
     public static final List<GrantedAuthority> DEFAULT_AUTHORITIES = List.of(new SimpleGrantedAuthority("USER"));
+    public static final String METRICS_ROLE = "METRICS";
+    public static final List<GrantedAuthority> METRICS_AUTHORITIES = List.of(new SimpleGrantedAuthority("USER"),
+            new SimpleGrantedAuthority("ROLE_" + METRICS_ROLE));
 
     // Note: Сейчас разрешены:
     // - GET('/api/users')
     // - POST('/api/users')
     // - POST('/api/login')
-    // - все запросы НЕ начинающиеся на '/api'
+    // - GET('/actuator/health')
+    // - все запросы НЕ начинающиеся на '/api' и '/actuator'
+    // Остальные '/actuator' доступны только пользователям из security.metrics-users
 
     private final UserDetailsService userDetailsService;
     private final JWTHelper jwtHelper;
+    private final LoginThrottle loginThrottle;
     private final RequestMatcher loginRequest;
     private final RequestMatcher publicUrls;
+    // anyone can register, so being authenticated is not enough to read the metrics
+    private final Set<String> metricsUsers;
 
     public SecurityConfig(@Value("${base-url}") final String baseUrl, final UserDetailsService userDetailsService,
-                          final JWTHelper jwtHelper) {
+                          final JWTHelper jwtHelper, final LoginThrottle loginThrottle,
+                          @Value("${security.metrics-users:}") final Set<String> metricsUsers) {
         this.userDetailsService = userDetailsService;
         this.jwtHelper = jwtHelper;
+        this.loginThrottle = loginThrottle;
+        this.metricsUsers = metricsUsers;
         this.loginRequest = new AntPathRequestMatcher(baseUrl + LOGIN, HttpMethod.POST.toString());
         this.publicUrls = new OrRequestMatcher(
                 loginRequest,
                 new AntPathRequestMatcher(baseUrl + USER_CONTROLLER_PATH, HttpMethod.POST.toString()),
                 new AntPathRequestMatcher(baseUrl + USER_CONTROLLER_PATH, HttpMethod.GET.toString()),
-                new NegatedRequestMatcher(new AntPathRequestMatcher(baseUrl + "/**"))
+                EndpointRequest.to(HealthEndpoint.class),
+                new AndRequestMatcher(
+                        new NegatedRequestMatcher(new AntPathRequestMatcher(baseUrl + "/**")),
+                        new NegatedRequestMatcher(EndpointRequest.toAnyEndpoint()))
         );
     }
 
+    // hashing runs on its own pool, the timer measures the hash itself and not the time spent in the queue
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(final MeterRegistry meterRegistry,
+                                           @Value("${security.password-hashing.threads:2}") final int threads,
+                                           @Value("${security.password-hashing.queue-size:64}") final int queueSize,
+                                           @Value("${security.password-hashing.wait-timeout-ms:5000}")
+                                           final long waitTimeoutMs,
+                                           @Value("${security.password-hashing.bcrypt-strength:10}")
+                                           final int bcryptStrength) {
+        final BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+        // new hashes are prefixed with the algorithm, hashes stored before have no prefix and are always BCrypt
+        final DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(BCRYPT, Map.of(BCRYPT, bcrypt));
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+        return new BoundedPasswordEncoder(new TimedPasswordEncoder(delegating, meterRegistry),
+                threads, queueSize, waitTimeoutMs, meterRegistry);
     }
 
+    // a successful login re-hashes a password stored with another algorithm or a lower BCrypt strength
     @Bean
-    public DaoAuthenticationProvider authenticationProvider() {
+    public DaoAuthenticationProvider authenticationProvider(final PasswordEncoder passwordEncoder,
+                                                            final UserDetailsPasswordService passwordService) {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setUserDetailsPasswordService(passwordService);
+        authProvider.setPasswordEncoder(passwordEncoder);
         return authProvider;
     }
 
@@ -84,15 +128,25 @@ public class SecurityConfig {
         http
                 .csrf().disable()
                 .authorizeHttpRequests()
+                // the request was authorized before it went async, the dispatch only writes out its result
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .requestMatchers(publicUrls).permitAll()
+                .requestMatchers(EndpointRequest.toAnyEndpoint()).hasRole(METRICS_ROLE)
                 .anyRequest().authenticated().and()
+                // scrapers expect 401 to know they have to send credentials, the API keeps answering 403
+                .exceptionHandling()
+                .defaultAuthenticationEntryPointFor(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED),
+                        EndpointRequest.toAnyEndpoint())
+                .defaultAuthenticationEntryPointFor(new Http403ForbiddenEntryPoint(), AnyRequestMatcher.INSTANCE)
+                .and()
                 .addFilter(new JWTAuthenticationFilter(
                         authenticationManager(http.getSharedObject(AuthenticationConfiguration.class)),
                         loginRequest,
-                        jwtHelper
+                        jwtHelper,
+                        loginThrottle
                 ))
                 .addFilterBefore(
-                        new JWTAuthorizationFilter(publicUrls, jwtHelper),
+                        new JWTAuthorizationFilter(publicUrls, jwtHelper, this::authorities),
                         UsernamePasswordAuthenticationFilter.class
                 )
                 .formLogin().disable()
@@ -101,5 +155,9 @@ public class SecurityConfig {
 
         return http.build();
     }
+
+    private List<GrantedAuthority> authorities(final String username) {
+        return metricsUsers.contains(username) ? METRICS_AUTHORITIES : DEFAULT_AUTHORITIES;
+    }
 }
 
@@ -0,0 +1,39 @@
+package hexlet.code.config.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Times every hash and check of the delegate, BCrypt is by design the slowest part of a login.
+ */
+public class TimedPasswordEncoder implements PasswordEncoder {
+
+    public static final String METRIC = "password.encoder";
+
+    private final PasswordEncoder delegate;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+
+    public TimedPasswordEncoder(final PasswordEncoder delegate, final MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.encodeTimer = meterRegistry.timer(METRIC, "operation", "encode");
+        this.matchesTimer = meterRegistry.timer(METRIC, "operation", "matches");
+    }
+
+    @Override
+    public String encode(final CharSequence rawPassword) {
+        return encodeTimer.record(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(final CharSequence rawPassword, final String encodedPassword) {
+        return Boolean.TRUE.equals(matchesTimer.record(() -> delegate.matches(rawPassword, encodedPassword)));
+    }
+
+    @Override
+    public boolean upgradeEncoding(final String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+}
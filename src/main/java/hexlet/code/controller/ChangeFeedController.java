@@ -0,0 +1,52 @@
+package hexlet.code.controller;
+
+import hexlet.code.component.ChangeFeed;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.AllArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Set;
+
+import static hexlet.code.dto.ChangeDto.LABELS;
+import static hexlet.code.dto.ChangeDto.STATUSES;
+import static hexlet.code.dto.ChangeDto.TASKS;
+
+@AllArgsConstructor
+@RestController
+@RequestMapping("${base-url}" + ChangeFeedController.CHANGE_FEED_CONTROLLER_PATH)
+public class ChangeFeedController {
+
+    public static final String CHANGE_FEED_CONTROLLER_PATH = "/changes";
+    public static final String LAST_EVENT_ID = "Last-Event-ID";
+
+    private static final Set<String> ENTITIES = Set.of(TASKS, STATUSES, LABELS);
+
+    private final ChangeFeed changeFeed;
+
+    @Operation(summary = "Subscribe to created, updated and deleted tasks, statuses and labels as Server-Sent Events")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200"),
+        @ApiResponse(responseCode = "422", content = @Content(schema = @Schema(implementation = String.class))),
+        @ApiResponse(responseCode = "500", content = @Content(schema = @Schema(implementation = String.class))),
+    })
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe(@RequestParam(required = false) final Set<String> entities,
+                                @RequestHeader(value = LAST_EVENT_ID, required = false) final Long lastEventId) {
+        if (entities != null && !ENTITIES.containsAll(entities)) {
+            throw new IllegalArgumentException(String.format("Unknown entities %s, expected any of %s",
+                    entities, ENTITIES));
+        }
+        return changeFeed.subscribe(entities == null ? ENTITIES : entities, lastEventId);
+    }
+
+}
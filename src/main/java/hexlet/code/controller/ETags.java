@@ -0,0 +1,85 @@
+package hexlet.code.controller;
+
+import hexlet.code.model.Label;
+import hexlet.code.model.Status;
+import hexlet.code.model.Task;
+import hexlet.code.model.User;
+import hexlet.code.repository.Fingerprint;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * ETags from entity versions. An entity gets a strong ETag, If-Match compares it before an update.
+ * A collection gets a weak ETag of its {@link Fingerprint}, which the repositories can count without loading
+ * the entities, so an unchanged collection is answered before it's read. Sums can be equal for different rows,
+ * so the ETag only tells the collection is probably unchanged and is never used for a conditional write.
+ */
+final class ETags {
+
+    private ETags() {
+    }
+
+    static String of(final Object value) {
+        return DigestUtils.md5DigestAsHex(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static String weak(final String eTag) {
+        return "W/\"" + eTag + "\"";
+    }
+
+    static String ofStatuses(final Collection<Status> statuses) {
+        return of(Fingerprint.of(statuses.stream(), Status::getId, Status::getVersion));
+    }
+
+    static String ofLabels(final Collection<Label> labels) {
+        return of(Fingerprint.of(labels.stream(), Label::getId, Label::getVersion));
+    }
+
+    static String ofUsers(final Collection<User> users) {
+        return of(Fingerprint.of(users.stream(), User::getId, User::getVersion));
+    }
+
+    // a task is written out with its status, labels and users, so their versions are part of its ETag
+    static String ofTasks(final Iterable<Task> iterable) {
+        final List<Task> tasks = StreamSupport.stream(iterable.spliterator(), false).toList();
+        return of(List.of(
+                Fingerprint.of(tasks.stream(), Task::getId, Task::getVersion),
+                Fingerprint.of(tasks.stream().map(Task::getTaskStatus), Status::getId, Status::getVersion),
+                Fingerprint.of(tasks.stream().map(Task::getLabels).filter(Objects::nonNull).flatMap(Collection::stream),
+                        Label::getId, Label::getVersion),
+                Fingerprint.of(tasks.stream().flatMap(task -> Stream.of(task.getAuthor(), task.getExecutor())),
+                        User::getId, User::getVersion)));
+    }
+
+    // strong comparison with every ETag of an If-Match header
+    static boolean matches(final String ifMatch, final String eTag) {
+        final String quoted = "\"" + eTag + "\"";
+        return Arrays.stream(ifMatch.split(","))
+                .map(String::trim)
+                .anyMatch(value -> value.equals("*") || value.equals(quoted));
+    }
+
+    // weak comparison with every ETag of an If-None-Match header, as for a GET
+    static boolean matchesWeakly(final String ifNoneMatch, final String eTag) {
+        final String opaque = eTag.replaceFirst("^W/", "");
+        return Arrays.stream(ifNoneMatch.split(","))
+                .map(String::trim)
+                .anyMatch(value -> value.equals("*") || value.replaceFirst("^W/", "").equals(opaque));
+    }
+
+    // only computed for a conditional request, a plain one gets the ETag of what it has loaded anyway
+    static boolean isNotModified(final WebRequest request, final Supplier<String> eTag) {
+        return request.getHeader(HttpHeaders.IF_NONE_MATCH) != null && request.checkNotModified(eTag.get());
+    }
+
+}
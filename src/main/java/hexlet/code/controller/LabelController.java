@@ -19,6 +19,7 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.util.List;
@@ -36,17 +37,23 @@ public class LabelController {
     @Operation(summary = "Get all labels")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200"),
+        @ApiResponse(responseCode = "304"),
         @ApiResponse(responseCode = "422", content = @Content(schema = @Schema(implementation = String.class))),
         @ApiResponse(responseCode = "500", content = @Content(schema = @Schema(implementation = String.class))),
     })
     @GetMapping
-    public ResponseEntity<List<Label>> getAllLabels() {
-        return ResponseEntity.ok().body(labelService.findAllLabels());
+    public ResponseEntity<List<Label>> getAllLabels(final WebRequest request) {
+        if (ETags.isNotModified(request, () -> ETags.weak(ETags.of(labelService.findLabelsFingerprint())))) {
+            return null;
+        }
+        final List<Label> labels = labelService.findAllLabels();
+        return ResponseEntity.ok().eTag(ETags.weak(ETags.ofLabels(labels))).body(labels);
     }
 
     @Operation(summary = "Get label by id")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200"),
+        @ApiResponse(responseCode = "304"),
         @ApiResponse(responseCode = "401", content = @Content(schema = @Schema(implementation = String.class))),
         @ApiResponse(responseCode = "403", content = @Content(schema = @Schema(implementation = String.class))),
         @ApiResponse(responseCode = "404", content = @Content(schema = @Schema(implementation = String.class))),
@@ -55,7 +62,8 @@ public class LabelController {
     })
     @GetMapping(ID)
     public ResponseEntity<Label> getLabelById(@PathVariable final Long id) {
-        return ResponseEntity.ok().body(labelService.findLabelById(id));
+        final Label label = labelService.findLabelById(id);
+        return ResponseEntity.ok().eTag(ETags.ofLabels(List.of(label))).body(label);
     }
 
     @Operation(summary = "Create new label")
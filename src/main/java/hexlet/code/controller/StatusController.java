@@ -19,6 +19,7 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.util.List;
@@ -36,17 +37,23 @@ public class StatusController {
     @Operation(summary = "Get all statuses")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200"),
+        @ApiResponse(responseCode = "304"),
         @ApiResponse(responseCode = "422", content = @Content(schema = @Schema(implementation = String.class))),
         @ApiResponse(responseCode = "500", content = @Content(schema = @Schema(implementation = String.class))),
     })
     @GetMapping
-    public ResponseEntity<List<Status>> getAllStatuses() {
-        return ResponseEntity.ok().body(statusService.findAllStatuses());
+    public ResponseEntity<List<Status>> getAllStatuses(final WebRequest request) {
+        if (ETags.isNotModified(request, () -> ETags.weak(ETags.of(statusService.findStatusesFingerprint())))) {
+            return null;
+        }
+        final List<Status> statuses = statusService.findAllStatuses();
+        return ResponseEntity.ok().eTag(ETags.weak(ETags.ofStatuses(statuses))).body(statuses);
     }
 
     @Operation(summary = "Get status by id")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200"),
+        @ApiResponse(responseCode = "304"),
         @ApiResponse(responseCode = "401", content = @Content(schema = @Schema(implementation = String.class))),
         @ApiResponse(responseCode = "403", content = @Content(schema = @Schema(implementation = String.class))),
         @ApiResponse(responseCode = "404", content = @Content(schema = @Schema(implementation = String.class))),
@@ -55,7 +62,8 @@ public class StatusController {
     })
     @GetMapping(ID)
     public ResponseEntity<Status> getStatusById(@PathVariable final Long id) {
-        return ResponseEntity.ok().body(statusService.findStatusById(id));
+        final Status status = statusService.findStatusById(id);
+        return ResponseEntity.ok().eTag(ETags.ofStatuses(List.of(status))).body(status);
     }
 
     @Operation(summary = "Create new status")
@@ -1,7 +1,13 @@
 package hexlet.code.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.querydsl.core.types.Predicate;
+import hexlet.code.dto.TaskBatchDto;
+import hexlet.code.dto.TaskBatchUpdateDto;
+import hexlet.code.dto.TaskDeltaDto;
 import hexlet.code.dto.TaskDto;
+import hexlet.code.dto.TaskPageDto;
 import hexlet.code.model.Task;
 import hexlet.code.service.TaskService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -11,19 +17,33 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.querydsl.binding.QuerydslPredicate;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Date;
+import java.util.List;
+
 @AllArgsConstructor
 @RestController
 @RequestMapping("${base-url}" + TaskController.TASK_CONTROLLER_PATH)
@@ -31,27 +51,85 @@ public class TaskController {
 
     public static final String TASK_CONTROLLER_PATH = "/tasks";
     public static final String ID = "/{id}";
-
-    private static final String ONLY_TASK_OWNER_BY_ID = """
-                @taskRepository.findById(#id).get().getAuthor().getEmail() == authentication.getName()
-            """;
+    public static final String PAGE = "/page";
+    public static final String EXPORT = "/export";
+    public static final String BATCH = "/batch";
+    public static final String UPDATED_SINCE = "updatedSince";
+    public static final String DEFAULT_PAGE_SIZE = "50";
 
     private final TaskService taskService;
 
+    private final ObjectMapper objectMapper;
+
     @Operation(summary = "Get all tasks")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200"),
+        @ApiResponse(responseCode = "304"),
         @ApiResponse(responseCode = "422", content = @Content(schema = @Schema(implementation = String.class))),
         @ApiResponse(responseCode = "500", content = @Content(schema = @Schema(implementation = String.class))),
     })
     @GetMapping
-    public ResponseEntity<Iterable<Task>> getAllTasks(@QuerydslPredicate(root = Task.class) Predicate predicate) {
-        return ResponseEntity.ok().body(taskService.findAllTasks(predicate));
+    public ResponseEntity<Iterable<Task>> getAllTasks(@QuerydslPredicate(root = Task.class) Predicate predicate,
+                                                      @RequestParam(required = false) final String q,
+                                                      final WebRequest request) {
+        // search results also depend on the ranking, so they are only compared after the search
+        final boolean search = q != null && !q.isBlank();
+        if (!search && ETags.isNotModified(request,
+                () -> ETags.weak(ETags.of(taskService.findTasksFingerprint(predicate))))) {
+            return null;
+        }
+        final Iterable<Task> tasks = search
+                ? taskService.searchTasks(q, predicate)
+                : taskService.findAllTasks(predicate);
+        return ResponseEntity.ok().eTag(ETags.weak(ETags.ofTasks(tasks))).body(tasks);
+    }
+
+    @Operation(summary = "Get tasks changed, ids of tasks deleted or no longer matching since a previous watermark")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200"),
+        @ApiResponse(responseCode = "422", content = @Content(schema = @Schema(implementation = String.class))),
+        @ApiResponse(responseCode = "500", content = @Content(schema = @Schema(implementation = String.class))),
+    })
+    @GetMapping(params = UPDATED_SINCE)
+    public ResponseEntity<TaskDeltaDto> getTasksChangedSince(
+            @QuerydslPredicate(root = Task.class) Predicate predicate,
+            @RequestParam(UPDATED_SINCE) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final Date updatedSince) {
+        return ResponseEntity.ok().body(taskService.findTasksChangedSince(predicate, updatedSince));
+    }
+
+    @Operation(summary = "Get tasks page ordered by creation, starting after the cursor")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200"),
+        @ApiResponse(responseCode = "422", content = @Content(schema = @Schema(implementation = String.class))),
+        @ApiResponse(responseCode = "500", content = @Content(schema = @Schema(implementation = String.class))),
+    })
+    @GetMapping(PAGE)
+    public ResponseEntity<TaskPageDto> getTasksPage(@QuerydslPredicate(root = Task.class) Predicate predicate,
+                                                    @RequestParam(required = false) final String cursor,
+                                                    @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) final int limit) {
+        return ResponseEntity.ok().body(taskService.findTasksPage(predicate, cursor, limit));
+    }
+
+    @Operation(summary = "Export tasks as newline delimited JSON")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200"),
+        @ApiResponse(responseCode = "422", content = @Content(schema = @Schema(implementation = String.class))),
+        @ApiResponse(responseCode = "500", content = @Content(schema = @Schema(implementation = String.class))),
+    })
+    @GetMapping(path = EXPORT, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportTasks(
+            @QuerydslPredicate(root = Task.class) Predicate predicate) {
+        final ObjectWriter writer = objectMapper.writerFor(Task.class);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(outputStream -> taskService.exportTasks(predicate,
+                        task -> writeLine(writer, outputStream, task)));
     }
 
     @Operation(summary = "Get task by id")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200"),
+        @ApiResponse(responseCode = "304"),
         @ApiResponse(responseCode = "401", content = @Content(schema = @Schema(implementation = String.class))),
         @ApiResponse(responseCode = "403", content = @Content(schema = @Schema(implementation = String.class))),
         @ApiResponse(responseCode = "404", content = @Content(schema = @Schema(implementation = String.class))),
@@ -60,7 +138,8 @@ public class TaskController {
     })
     @GetMapping(ID)
     public ResponseEntity<Task> getTaskById(@PathVariable final Long id) {
-        return ResponseEntity.ok().body(taskService.findTaskById(id));
+        final Task task = taskService.findTaskById(id);
+        return ResponseEntity.ok().eTag(ETags.ofTasks(List.of(task))).body(task);
     }
 
     @Operation(summary = "Create new task")
@@ -78,19 +157,77 @@ public class TaskController {
                 .body(task);
     }
 
-    @Operation(summary = "Update task by id")
+    @Operation(summary = "Update task by id, if it still matches the ETag in If-Match when one is given")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200"),
         @ApiResponse(responseCode = "401", content = @Content(schema = @Schema(implementation = String.class))),
         @ApiResponse(responseCode = "403", content = @Content(schema = @Schema(implementation = String.class))),
         @ApiResponse(responseCode = "404", content = @Content(schema = @Schema(implementation = String.class))),
+        @ApiResponse(responseCode = "409", description = "Changed in the meantime, the body is the current task"),
         @ApiResponse(responseCode = "422", content = @Content(schema = @Schema(implementation = String.class))),
         @ApiResponse(responseCode = "500", content = @Content(schema = @Schema(implementation = String.class))),
     })
     @PutMapping(ID)
     public ResponseEntity<Task> updateTaskById(@PathVariable final long id,
-                                               @RequestBody @Valid final TaskDto dto) {
-        return ResponseEntity.ok().body(taskService.updateTaskById(id, dto));
+                                               @RequestBody @Valid final TaskDto dto,
+                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                               final String ifMatch) {
+        try {
+            final Task task;
+            if (ifMatch == null) {
+                task = taskService.updateTaskById(id, dto);
+            } else {
+                final Task current = taskService.findTaskById(id);
+                if (!ETags.matches(ifMatch, ETags.ofTasks(List.of(current)))) {
+                    return conflict(current);
+                }
+                // the version check is repeated on write, in case the task changes after this read
+                task = taskService.updateTaskById(id, dto, current.getVersion());
+            }
+            return ResponseEntity.ok().eTag(ETags.ofTasks(List.of(task))).body(task);
+        } catch (OptimisticLockingFailureException e) {
+            return conflict(taskService.findTaskById(id));
+        }
+    }
+
+    @Operation(summary = "Create tasks in one batch")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201"),
+        @ApiResponse(responseCode = "404", content = @Content(schema = @Schema(implementation = String.class))),
+        @ApiResponse(responseCode = "422", content = @Content(schema = @Schema(implementation = String.class))),
+        @ApiResponse(responseCode = "500", content = @Content(schema = @Schema(implementation = String.class))),
+    })
+    @PostMapping(BATCH)
+    public ResponseEntity<List<Task>> createTasks(@RequestBody @Valid final TaskBatchDto dto) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(taskService.createTasks(dto.tasks()));
+    }
+
+    @Operation(summary = "Update tasks in one batch")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200"),
+        @ApiResponse(responseCode = "401", content = @Content(schema = @Schema(implementation = String.class))),
+        @ApiResponse(responseCode = "403", content = @Content(schema = @Schema(implementation = String.class))),
+        @ApiResponse(responseCode = "404", content = @Content(schema = @Schema(implementation = String.class))),
+        @ApiResponse(responseCode = "422", content = @Content(schema = @Schema(implementation = String.class))),
+        @ApiResponse(responseCode = "500", content = @Content(schema = @Schema(implementation = String.class))),
+    })
+    @PutMapping(BATCH)
+    public ResponseEntity<List<Task>> updateTasks(@RequestBody @Valid final TaskBatchUpdateDto dto) {
+        return ResponseEntity.ok().body(taskService.updateTasks(dto.tasks()));
+    }
+
+    @Operation(summary = "Delete tasks by ids in one batch")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200"),
+        @ApiResponse(responseCode = "401", content = @Content(schema = @Schema(implementation = String.class))),
+        @ApiResponse(responseCode = "403", content = @Content(schema = @Schema(implementation = String.class))),
+        @ApiResponse(responseCode = "404", content = @Content(schema = @Schema(implementation = String.class))),
+        @ApiResponse(responseCode = "422", content = @Content(schema = @Schema(implementation = String.class))),
+        @ApiResponse(responseCode = "500", content = @Content(schema = @Schema(implementation = String.class))),
+    })
+    @DeleteMapping(BATCH)
+    public void deleteTasks(@RequestParam final List<Long> ids) {
+        taskService.deleteTasks(ids);
     }
 
     @Operation(summary = "Delete task by id")
@@ -102,10 +239,23 @@ public class TaskController {
         @ApiResponse(responseCode = "422", content = @Content(schema = @Schema(implementation = String.class))),
         @ApiResponse(responseCode = "500", content = @Content(schema = @Schema(implementation = String.class))),
     })
-    @PreAuthorize(ONLY_TASK_OWNER_BY_ID)
     @DeleteMapping(ID)
     public void deleteTaskById(@PathVariable final long id) {
         taskService.deleteTaskById(id);
     }
 
+    // the client gets what it conflicts with, to merge its change and retry with the new ETag
+    private static ResponseEntity<Task> conflict(final Task current) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).eTag(ETags.ofTasks(List.of(current))).body(current);
+    }
+
+    private static void writeLine(final ObjectWriter writer, final OutputStream outputStream, final Task task) {
+        try {
+            outputStream.write(writer.writeValueAsBytes(task));
+            outputStream.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
 }
@@ -0,0 +1,100 @@
+package hexlet.code.controller;
+
+import hexlet.code.exeption.NotFoundServiceException;
+import hexlet.code.model.Task;
+import hexlet.code.repository.TaskReactiveRepository;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static hexlet.code.controller.TaskController.EXPORT;
+import static hexlet.code.controller.TaskController.ID;
+
+/**
+ * Read-only mirror of {@link TaskController#getAllTasks} and {@link TaskController#getTaskById} on R2DBC.
+ * The request thread is released while the database works and no JDBC connection is held.
+ * The collection and the task get the same ETags as the blocking endpoints, the collection answers If-None-Match.
+ * The export writes the tasks one by one, a new one is only requested after the previous one was written.
+ */
+@AllArgsConstructor
+@RestController
+@RequestMapping("${base-url}" + TaskReactiveController.REACTIVE_TASK_CONTROLLER_PATH)
+public class TaskReactiveController {
+
+    public static final String REACTIVE_TASK_CONTROLLER_PATH = "/reactive/tasks";
+
+    private final TaskReactiveRepository taskReactiveRepository;
+
+    @Operation(summary = "Get all tasks without blocking")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200"),
+        @ApiResponse(responseCode = "304"),
+        @ApiResponse(responseCode = "422", content = @Content(schema = @Schema(implementation = String.class))),
+        @ApiResponse(responseCode = "500", content = @Content(schema = @Schema(implementation = String.class))),
+    })
+    // the ETag comes from the fingerprint, counted before the tasks are read: a not modified list costs
+    // one aggregate query, and a write in between only makes the next conditional request miss
+    @GetMapping
+    public Mono<ResponseEntity<Flux<Task>>> getAllTasks(
+            @RequestParam(required = false) final Long authorId,
+            @RequestParam(required = false) final Long taskStatus,
+            @RequestParam(required = false) final Long executorId,
+            @RequestParam(required = false) final Long labelsId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) final String ifNoneMatch) {
+        return taskReactiveRepository.fingerprint(authorId, taskStatus, executorId, labelsId)
+                .map(fingerprint -> {
+                    final String eTag = ETags.weak(ETags.of(fingerprint));
+                    return ifNoneMatch != null && ETags.matchesWeakly(ifNoneMatch, eTag)
+                            ? ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).<Flux<Task>>build()
+                            : ResponseEntity.ok().eTag(eTag)
+                                    .body(taskReactiveRepository.findAll(authorId, taskStatus, executorId, labelsId));
+                });
+    }
+
+    @Operation(summary = "Stream tasks as newline delimited JSON, read from the database as fast as the client reads")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200"),
+        @ApiResponse(responseCode = "422", content = @Content(schema = @Schema(implementation = String.class))),
+        @ApiResponse(responseCode = "500", content = @Content(schema = @Schema(implementation = String.class))),
+    })
+    @GetMapping(path = EXPORT, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Task> exportTasks(@RequestParam(required = false) final Long authorId,
+                                  @RequestParam(required = false) final Long taskStatus,
+                                  @RequestParam(required = false) final Long executorId,
+                                  @RequestParam(required = false) final Long labelsId) {
+        return taskReactiveRepository.findAll(authorId, taskStatus, executorId, labelsId);
+    }
+
+    @Operation(summary = "Get task by id without blocking")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200"),
+        @ApiResponse(responseCode = "404", content = @Content(schema = @Schema(implementation = String.class))),
+        @ApiResponse(responseCode = "422", content = @Content(schema = @Schema(implementation = String.class))),
+        @ApiResponse(responseCode = "500", content = @Content(schema = @Schema(implementation = String.class))),
+    })
+    @GetMapping(ID)
+    public Mono<ResponseEntity<Task>> getTaskById(@PathVariable final long id) {
+        return taskReactiveRepository.findById(id)
+                .switchIfEmpty(Mono.error(() ->
+                        new NotFoundServiceException(String.format("Not found task with 'id': %d", id))))
+                .map(task -> ResponseEntity.ok().eTag(ETags.ofTasks(List.of(task))).body(task));
+    }
+
+}
@@ -2,6 +2,7 @@ package hexlet.code.controller;
 
 import com.rollbar.notifier.Rollbar;
 import hexlet.code.dto.UserDto;
+import hexlet.code.dto.UserPatchDto;
 import hexlet.code.model.User;
 import hexlet.code.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -12,15 +13,16 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.util.List;
@@ -32,9 +34,6 @@ public class UserController {
 
     public static final String USER_CONTROLLER_PATH = "/users";
     public static final String ID = "/{id}";
-    private static final String ONLY_OWNER_BY_ID = """
-                @userRepository.findById(#id).get().getEmail() == authentication.getName()
-            """;
 
     private final UserService userService;
     private final Rollbar rollbar;
@@ -42,18 +41,24 @@ public class UserController {
     @Operation(summary = "Get all users")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200"),
+        @ApiResponse(responseCode = "304"),
         @ApiResponse(responseCode = "422", content = @Content(schema = @Schema(implementation = String.class))),
         @ApiResponse(responseCode = "500", content = @Content(schema = @Schema(implementation = String.class))),
     })
     @GetMapping
-    public ResponseEntity<List<User>> getAllUsers() {
+    public ResponseEntity<List<User>> getAllUsers(final WebRequest request) {
         rollbar.debug("Get all users");
-        return ResponseEntity.ok().body(userService.findAllUsers());
+        if (ETags.isNotModified(request, () -> ETags.weak(ETags.of(userService.findUsersFingerprint())))) {
+            return null;
+        }
+        final List<User> users = userService.findAllUsers();
+        return ResponseEntity.ok().eTag(ETags.weak(ETags.ofUsers(users))).body(users);
     }
 
     @Operation(summary = "Get user by id")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200"),
+        @ApiResponse(responseCode = "304"),
         @ApiResponse(responseCode = "401", content = @Content(schema = @Schema(implementation = String.class))),
         @ApiResponse(responseCode = "403", content = @Content(schema = @Schema(implementation = String.class))),
         @ApiResponse(responseCode = "404", content = @Content(schema = @Schema(implementation = String.class))),
@@ -62,7 +67,8 @@ public class UserController {
     })
     @GetMapping(ID)
     public ResponseEntity<User> getUserById(@PathVariable final Long id) {
-        return ResponseEntity.ok().body(userService.findUserById(id));
+        final User user = userService.findUserById(id);
+        return ResponseEntity.ok().eTag(ETags.ofUsers(List.of(user))).body(user);
     }
 
     @Operation(summary = "Create new user")
@@ -88,13 +94,27 @@ public class UserController {
         @ApiResponse(responseCode = "422", content = @Content(schema = @Schema(implementation = String.class))),
         @ApiResponse(responseCode = "500", content = @Content(schema = @Schema(implementation = String.class))),
     })
-    @PreAuthorize(ONLY_OWNER_BY_ID)
     @PutMapping(ID)
     public ResponseEntity<User> updateUserById(@PathVariable final long id,
                                                @RequestBody @Valid final UserDto dto) {
         return ResponseEntity.ok().body(userService.updateUserById(id, dto));
     }
 
+    @Operation(summary = "Update the given fields of user by id")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200"),
+        @ApiResponse(responseCode = "401", content = @Content(schema = @Schema(implementation = String.class))),
+        @ApiResponse(responseCode = "403", content = @Content(schema = @Schema(implementation = String.class))),
+        @ApiResponse(responseCode = "404", content = @Content(schema = @Schema(implementation = String.class))),
+        @ApiResponse(responseCode = "422", content = @Content(schema = @Schema(implementation = String.class))),
+        @ApiResponse(responseCode = "500", content = @Content(schema = @Schema(implementation = String.class))),
+    })
+    @PatchMapping(ID)
+    public ResponseEntity<User> patchUserById(@PathVariable final long id,
+                                              @RequestBody @Valid final UserPatchDto dto) {
+        return ResponseEntity.ok().body(userService.patchUserById(id, dto));
+    }
+
     @Operation(summary = "Delete user by id")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200"),
@@ -104,7 +124,6 @@ public class UserController {
         @ApiResponse(responseCode = "422", content = @Content(schema = @Schema(implementation = String.class))),
         @ApiResponse(responseCode = "500", content = @Content(schema = @Schema(implementation = String.class))),
     })
-    @PreAuthorize(ONLY_OWNER_BY_ID)
     @DeleteMapping(ID)
     public void deleteUserById(@PathVariable final long id) {
         userService.deleteUserById(id);
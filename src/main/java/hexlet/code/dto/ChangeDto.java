@@ -0,0 +1,28 @@
+package hexlet.code.dto;
+
+// a created, updated or deleted entity, published by the services and pushed to the change feed after commit
+public record ChangeDto(String entity, Type type, long id, Object data) {
+
+    public static final String TASKS = "tasks";
+    public static final String STATUSES = "statuses";
+    public static final String LABELS = "labels";
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    public static ChangeDto created(final String entity, final long id, final Object data) {
+        return new ChangeDto(entity, Type.CREATED, id, data);
+    }
+
+    public static ChangeDto updated(final String entity, final long id, final Object data) {
+        return new ChangeDto(entity, Type.UPDATED, id, data);
+    }
+
+    public static ChangeDto deleted(final String entity, final long id) {
+        return new ChangeDto(entity, Type.DELETED, id, null);
+    }
+
+}
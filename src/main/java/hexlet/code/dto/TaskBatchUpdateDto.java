@@ -0,0 +1,13 @@
+package hexlet.code.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record TaskBatchUpdateDto(
+        @NotEmpty(message = "Tasks are required")
+        @Size(max = 10000, message = "Batch can contain at most 10000 tasks")
+        List<@Valid TaskUpdateDto> tasks) {
+}
@@ -0,0 +1,10 @@
+package hexlet.code.dto;
+
+import hexlet.code.model.Task;
+
+import java.util.Date;
+import java.util.List;
+
+// unmatchedIds are the tasks that changed but no longer match the filters, a client drops them like deleted ones
+public record TaskDeltaDto(List<Task> tasks, List<Long> deletedIds, List<Long> unmatchedIds, Date watermark) {
+}
@@ -0,0 +1,8 @@
+package hexlet.code.dto;
+
+import hexlet.code.model.Task;
+
+import java.util.List;
+
+public record TaskPageDto(List<Task> content, String nextCursor) {
+}
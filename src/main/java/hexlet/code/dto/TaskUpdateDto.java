@@ -0,0 +1,13 @@
+package hexlet.code.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+
+public record TaskUpdateDto(
+        @NotNull(message = "Task id is required")
+        Long id,
+
+        @Valid
+        @NotNull(message = "Task is required")
+        TaskDto task) {
+}
@@ -0,0 +1,28 @@
+package hexlet.code.dto;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+
+// only the given fields are changed, a missing password keeps the current hash;
+// a given field is validated like in a full update, so it can not be blank either
+public record UserPatchDto(
+        @Pattern(regexp = UserPatchDto.NOT_BLANK, message = "First name is required")
+        @Size(min = 1, max = 30, message = "Your first name needs to be between 1 and 30 characters long")
+        String firstName,
+
+        @Pattern(regexp = UserPatchDto.NOT_BLANK, message = "Last name is required")
+        @Size(min = 1, max = 30, message = "Your last name needs to be between 1 and 30 characters long")
+        String lastName,
+
+        @Pattern(regexp = UserPatchDto.NOT_BLANK, message = "Email is required")
+        @Email(message = "Please enter a valid email address")
+        String email,
+
+        @Pattern(regexp = UserPatchDto.NOT_BLANK, message = "Password is required")
+        @Size(min = 3, max = 30, message = "Your password needs to be between 3 and 30 characters long")
+        String password) {
+
+    public static final String NOT_BLANK = "(?s).*\\S.*";
+
+}
@@ -0,0 +1,18 @@
+package hexlet.code.exeption;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@Getter
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class TooManyRequestsException extends AuthenticationException {
+
+    private final long retryAfterSec;
+
+    public TooManyRequestsException(final String message, final long retryAfterSec) {
+        super(message);
+        this.retryAfterSec = retryAfterSec;
+    }
+}
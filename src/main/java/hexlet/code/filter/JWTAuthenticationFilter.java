@@ -2,10 +2,15 @@ package hexlet.code.filter;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import hexlet.code.component.JWTHelper;
+import hexlet.code.component.LoginThrottle;
 import hexlet.code.dto.LoginDto;
+import hexlet.code.exeption.TooManyRequestsException;
 import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -25,11 +30,14 @@ public class JWTAuthenticationFilter extends UsernamePasswordAuthenticationFilte
 
     private final JWTHelper jwtHelper;
 
+    private final LoginThrottle loginThrottle;
+
     public JWTAuthenticationFilter(final AuthenticationManager authenticationManager, final RequestMatcher loginRequest,
-                                   final JWTHelper jwtHelper) {
+                                   final JWTHelper jwtHelper, final LoginThrottle loginThrottle) {
         super(authenticationManager);
         super.setRequiresAuthenticationRequestMatcher(loginRequest);
         this.jwtHelper = jwtHelper;
+        this.loginThrottle = loginThrottle;
     }
 
     @Override
@@ -41,7 +49,21 @@ public class JWTAuthenticationFilter extends UsernamePasswordAuthenticationFilte
                 loginData.password()
         );
         setDetails(request, authRequest);
-        return getAuthenticationManager().authenticate(authRequest);
+
+        // the client address, as server.forward-headers-strategy takes it from X-Forwarded-For behind a proxy;
+        // rejected before the password is hashed, that's what makes the rejection cheap
+        final String address = request.getRemoteAddr();
+        loginThrottle.checkAttempt(address, loginData.email());
+        try {
+            final Authentication authentication = getAuthenticationManager().authenticate(authRequest);
+            loginThrottle.loginSucceeded(address, loginData.email());
+            return authentication;
+        } catch (TooManyRequestsException e) {
+            throw e;
+        } catch (AuthenticationException e) {
+            loginThrottle.loginFailed(address, loginData.email());
+            throw e;
+        }
     }
 
     private LoginDto getLoginData(final HttpServletRequest request) throws AuthenticationException {
@@ -66,4 +88,17 @@ public class JWTAuthenticationFilter extends UsernamePasswordAuthenticationFilte
         response.getWriter().println(token);
     }
 
+    @Override
+    protected void unsuccessfulAuthentication(final HttpServletRequest request,
+                                              final HttpServletResponse response,
+                                              final AuthenticationException failed)
+            throws IOException, ServletException {
+        if (failed instanceof TooManyRequestsException tooManyRequests) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(tooManyRequests.getRetryAfterSec()));
+            response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), failed.getMessage());
+            return;
+        }
+        super.unsuccessfulAuthentication(request, response, failed);
+    }
+
 }
@@ -6,14 +6,16 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
-import static hexlet.code.config.security.SecurityConfig.DEFAULT_AUTHORITIES;
 import static org.springframework.http.HttpHeaders.AUTHORIZATION;
 import static org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter.SPRING_SECURITY_FORM_USERNAME_KEY;
 
@@ -23,11 +25,14 @@ public class JWTAuthorizationFilter extends OncePerRequestFilter {
 
     private final RequestMatcher publicUrls;
     private final JWTHelper jwtHelper;
+    private final Function<String, List<GrantedAuthority>> authorities;
 
     public JWTAuthorizationFilter(final RequestMatcher publicUrls,
-                                  final JWTHelper jwtHelper) {
+                                  final JWTHelper jwtHelper,
+                                  final Function<String, List<GrantedAuthority>> authorities) {
         this.publicUrls = publicUrls;
         this.jwtHelper = jwtHelper;
+        this.authorities = authorities;
     }
 
     @Override
@@ -56,7 +61,7 @@ public class JWTAuthorizationFilter extends OncePerRequestFilter {
         return new UsernamePasswordAuthenticationToken(
                 username,
                 null,
-                DEFAULT_AUTHORITIES
+                authorities.apply(username)
         );
     }
 }
@@ -1,23 +1,32 @@
 package hexlet.code.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.persistence.Temporal;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.util.Date;
 
-import static jakarta.persistence.GenerationType.IDENTITY;
+import static hexlet.code.config.CacheConfig.STATUSES_REGION;
+import static jakarta.persistence.GenerationType.SEQUENCE;
 import static jakarta.persistence.TemporalType.TIMESTAMP;
+import static org.hibernate.annotations.CacheConcurrencyStrategy.READ_WRITE;
 
 @Entity
+@Cacheable
+@Cache(usage = READ_WRITE, region = STATUSES_REGION)
 @Getter
 @Setter
 @Table(name = "statuses")
@@ -27,9 +36,14 @@ import static jakarta.persistence.TemporalType.TIMESTAMP;
 public class Status {
 
     @Id
-    @GeneratedValue(strategy = IDENTITY)
+    @GeneratedValue(strategy = SEQUENCE, generator = "statuses_seq")
+    @SequenceGenerator(name = "statuses_seq", sequenceName = "statuses_seq", allocationSize = 50)
     private Long id;
 
+    @Version
+    @JsonIgnore
+    private Long version;
+
     private String name;
 
     @CreationTimestamp
@@ -1,41 +1,77 @@
 package hexlet.code.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import hexlet.code.component.TaskSearchIndexListener;
 import jakarta.persistence.Entity;
-import jakarta.persistence.FetchType;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
 import jakarta.persistence.Lob;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.NamedEntityGraphs;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.persistence.Temporal;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.util.Date;
 import java.util.Set;
 
-import static jakarta.persistence.GenerationType.IDENTITY;
+import static hexlet.code.config.CacheConfig.TASK_LABELS_REGION;
+import static jakarta.persistence.GenerationType.SEQUENCE;
 import static jakarta.persistence.TemporalType.TIMESTAMP;
+import static org.hibernate.annotations.CacheConcurrencyStrategy.READ_WRITE;
 
 
 @Entity
 @Getter
 @Setter
 @Table(name = "tasks")
+@EntityListeners(TaskSearchIndexListener.class)
+@NamedEntityGraphs({
+    @NamedEntityGraph(name = Task.WITH_RELATIONS, attributeNodes = {
+        @NamedAttributeNode("taskStatus"),
+        @NamedAttributeNode("author"),
+        @NamedAttributeNode("executor"),
+        @NamedAttributeNode("labels")
+    }),
+    // for limited queries, where a joined collection would force paging in memory
+    @NamedEntityGraph(name = Task.WITH_REFERENCES, attributeNodes = {
+        @NamedAttributeNode("taskStatus"),
+        @NamedAttributeNode("author"),
+        @NamedAttributeNode("executor")
+    })
+})
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class Task {
 
+    public static final String WITH_RELATIONS = "Task.withRelations";
+    public static final String WITH_REFERENCES = "Task.withReferences";
+
     @Id
-    @GeneratedValue(strategy = IDENTITY)
+    @GeneratedValue(strategy = SEQUENCE, generator = "tasks_seq")
+    @SequenceGenerator(name = "tasks_seq", sequenceName = "tasks_seq", allocationSize = 50)
     private Long id;
 
+    // bumped on every change, including the labels, it makes the ETag and guards updates against lost writes
+    @Version
+    @JsonIgnore
+    private Long version;
+
     private String name;
 
     @Lob
@@ -44,7 +80,9 @@ public class Task {
     @ManyToOne
     private Status taskStatus;
 
-    @ManyToMany(fetch = FetchType.EAGER)
+    @ManyToMany
+    @BatchSize(size = 500)
+    @Cache(usage = READ_WRITE, region = TASK_LABELS_REGION)
     private Set<Label> labels;
 
     @ManyToOne
@@ -57,6 +95,11 @@ public class Task {
     @Temporal(TIMESTAMP)
     private Date createdAt;
 
+    // set on every write, with the tombstones of the deleted tasks it lets clients fetch only what changed
+    @UpdateTimestamp
+    @Temporal(TIMESTAMP)
+    private Date updatedAt;
+
     public Task(final Long id) {
         this.id = id;
     }
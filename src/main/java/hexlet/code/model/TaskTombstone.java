@@ -0,0 +1,33 @@
+package hexlet.code.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.Temporal;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.util.Date;
+
+import static jakarta.persistence.TemporalType.TIMESTAMP;
+
+// what is left of a deleted task, so that clients syncing their copy know to drop it
+@Entity
+@Getter
+@NoArgsConstructor
+@Table(name = "task_tombstones")
+public class TaskTombstone {
+
+    @Id
+    private Long taskId;
+
+    @CreationTimestamp
+    @Temporal(TIMESTAMP)
+    private Date deletedAt;
+
+    public TaskTombstone(final Long taskId) {
+        this.taskId = taskId;
+    }
+
+}
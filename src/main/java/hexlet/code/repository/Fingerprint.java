@@ -0,0 +1,24 @@
+package hexlet.code.repository;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// a cheap summary of a set of rows: an update bumps the version sum, a created or deleted row changes the count.
+// Rows leaving and entering a filtered set can keep all three sums, so it only backs weak ETags
+public record Fingerprint(long count, long idSum, long versionSum) {
+
+    // the same as the aggregate query over these entities, without the query
+    public static <T> Fingerprint of(final Stream<T> entities, final Function<T, Long> getId,
+                                     final Function<T, Long> getVersion) {
+        final Map<Long, T> byId = entities.filter(Objects::nonNull)
+                .collect(Collectors.toMap(getId, Function.identity(), (first, second) -> first));
+        return new Fingerprint(
+                byId.size(),
+                byId.keySet().stream().mapToLong(Long::longValue).sum(),
+                byId.values().stream().map(getVersion).filter(Objects::nonNull).mapToLong(Long::longValue).sum());
+    }
+
+}
@@ -2,6 +2,15 @@ package hexlet.code.repository;
 
 import hexlet.code.model.Label;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 public interface LabelRepository extends JpaRepository<Label, Long> {
+
+    @Query("""
+            select new hexlet.code.repository.Fingerprint(
+                count(l), coalesce(sum(l.id), 0L), coalesce(sum(l.version), 0L))
+            from Label l
+            """)
+    Fingerprint fingerprint();
+
 }
@@ -2,6 +2,15 @@ package hexlet.code.repository;
 
 import hexlet.code.model.Status;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 public interface StatusRepository extends JpaRepository<Status, Long> {
+
+    @Query("""
+            select new hexlet.code.repository.Fingerprint(
+                count(s), coalesce(sum(s.id), 0L), coalesce(sum(s.version), 0L))
+            from Status s
+            """)
+    Fingerprint fingerprint();
+
 }
@@ -0,0 +1,198 @@
+package hexlet.code.repository;
+
+import hexlet.code.model.Label;
+import hexlet.code.model.Status;
+import hexlet.code.model.Task;
+import hexlet.code.model.User;
+import io.r2dbc.spi.Readable;
+import lombok.AllArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.RowsFetchSpec;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Reads tasks with their status, users and labels over R2DBC, for the reactive endpoints.
+ * One row per task and label, ordered by task, so a task is emitted as soon as its last row is read
+ * and the database is only asked for more rows when the subscriber asks for more tasks.
+ */
+@Repository
+@AllArgsConstructor
+public class TaskReactiveRepository {
+
+    private static final String SELECT = """
+            SELECT t.id, t.version, t.name, t.description, t.created_at, t.updated_at,
+                   s.id AS status_id, s.version AS status_version, s.name AS status_name,
+                   s.created_at AS status_created_at,
+                   a.id AS author_id, a.version AS author_version, a.first_name AS author_first_name,
+                   a.last_name AS author_last_name, a.email AS author_email, a.created_at AS author_created_at,
+                   e.id AS executor_id, e.version AS executor_version, e.first_name AS executor_first_name,
+                   e.last_name AS executor_last_name, e.email AS executor_email,
+                   e.created_at AS executor_created_at,
+                   l.id AS label_id, l.version AS label_version, l.name AS label_name,
+                   l.created_at AS label_created_at
+            FROM tasks t
+            LEFT JOIN statuses s ON s.id = t.task_status_id
+            LEFT JOIN users a ON a.id = t.author_id
+            LEFT JOIN users e ON e.id = t.executor_id
+            LEFT JOIN tasks_labels tl ON tl.task_id = t.id
+            LEFT JOIN labels l ON l.id = tl.labels_id
+            """;
+
+    // the same aggregates as TaskRepositoryCustom#fingerprint in one query, %1$s is the filter of the tasks
+    private static final String FINGERPRINT = """
+            SELECT ft.*, fs.*, fl.*, fu.* FROM
+            (SELECT COUNT(t.id) AS task_count, COALESCE(SUM(t.id), 0) AS task_ids,
+                    COALESCE(SUM(t.version), 0) AS task_versions
+             FROM tasks t %1$s) ft,
+            (SELECT COUNT(s.id) AS status_count, COALESCE(SUM(s.id), 0) AS status_ids,
+                    COALESCE(SUM(s.version), 0) AS status_versions
+             FROM statuses s WHERE s.id IN (SELECT t.task_status_id FROM tasks t %1$s)) fs,
+            (SELECT COUNT(l.id) AS label_count, COALESCE(SUM(l.id), 0) AS label_ids,
+                    COALESCE(SUM(l.version), 0) AS label_versions
+             FROM labels l WHERE l.id IN (SELECT tl.labels_id FROM tasks t
+                                          JOIN tasks_labels tl ON tl.task_id = t.id %1$s)) fl,
+            (SELECT COUNT(u.id) AS user_count, COALESCE(SUM(u.id), 0) AS user_ids,
+                    COALESCE(SUM(u.version), 0) AS user_versions
+             FROM users u WHERE u.id IN (SELECT t.author_id FROM tasks t %1$s)
+                             OR u.id IN (SELECT t.executor_id FROM tasks t %1$s)) fu
+            """;
+
+    private final DatabaseClient reactiveDatabaseClient;
+
+    // the same filters as the query parameters of the blocking endpoint, a null one is not applied
+    public Flux<Task> findAll(final Long authorId, final Long taskStatusId, final Long executorId,
+                              final Long labelId) {
+        final List<Filter> filters = filters(authorId, taskStatusId, executorId, labelId);
+        return toTasks(bind(reactiveDatabaseClient.sql(SELECT + where(filters) + "ORDER BY t.id"), filters)
+                .map(row -> row));
+    }
+
+    // tasks, their statuses, labels and users of findAll, counted without reading the tasks
+    public Mono<List<Fingerprint>> fingerprint(final Long authorId, final Long taskStatusId, final Long executorId,
+                                               final Long labelId) {
+        final List<Filter> filters = filters(authorId, taskStatusId, executorId, labelId);
+        return bind(reactiveDatabaseClient.sql(FINGERPRINT.formatted(where(filters))), filters)
+                .map(row -> List.of(toFingerprint(row, "task_"), toFingerprint(row, "status_"),
+                        toFingerprint(row, "label_"), toFingerprint(row, "user_")))
+                .one();
+    }
+
+    public Mono<Task> findById(final long id) {
+        return toTasks(reactiveDatabaseClient.sql(SELECT + "WHERE t.id = :id")
+                .bind("id", id)
+                .map(row -> row))
+                .next();
+    }
+
+    private static List<Filter> filters(final Long authorId, final Long taskStatusId, final Long executorId,
+                                        final Long labelId) {
+        return Stream.of(
+                        new Filter("t.author_id = :authorId", "authorId", authorId),
+                        new Filter("t.task_status_id = :taskStatusId", "taskStatusId", taskStatusId),
+                        new Filter("t.executor_id = :executorId", "executorId", executorId),
+                        new Filter("EXISTS (SELECT 1 FROM tasks_labels f WHERE f.task_id = t.id"
+                                + " AND f.labels_id = :labelId)", "labelId", labelId))
+                .filter(filter -> filter.value() != null)
+                .toList();
+    }
+
+    private static String where(final List<Filter> filters) {
+        return filters.isEmpty() ? "" : filters.stream()
+                .map(Filter::condition)
+                .collect(Collectors.joining(" AND ", "WHERE ", "\n"));
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bind(final DatabaseClient.GenericExecuteSpec query,
+                                                          final List<Filter> filters) {
+        DatabaseClient.GenericExecuteSpec result = query;
+        for (Filter filter : filters) {
+            result = result.bind(filter.parameter(), filter.value());
+        }
+        return result;
+    }
+
+    // sums are numeric on Postgres
+    private static Fingerprint toFingerprint(final Readable row, final String prefix) {
+        return new Fingerprint(row.get(prefix + "count", Number.class).longValue(),
+                row.get(prefix + "ids", Number.class).longValue(),
+                row.get(prefix + "versions", Number.class).longValue());
+    }
+
+    private static Flux<Task> toTasks(final RowsFetchSpec<Readable> rows) {
+        return rows.all()
+                .map(TaskReactiveRepository::toTaskRow)
+                .bufferUntilChanged(row -> row.task().getId())
+                .map(TaskReactiveRepository::toTask);
+    }
+
+    // values are copied out of the row, it is only valid while it is being mapped
+    private static TaskRow toTaskRow(final Readable row) {
+        final Long statusId = row.get("status_id", Long.class);
+        final Long labelId = row.get("label_id", Long.class);
+        return new TaskRow(Task.builder()
+                .id(row.get("id", Long.class))
+                .version(row.get("version", Long.class))
+                .name(row.get("name", String.class))
+                .description(row.get("description", String.class))
+                .createdAt(toDate(row.get("created_at", LocalDateTime.class)))
+                .updatedAt(toDate(row.get("updated_at", LocalDateTime.class)))
+                .taskStatus(statusId == null ? null : Status.builder()
+                        .id(statusId)
+                        .version(row.get("status_version", Long.class))
+                        .name(row.get("status_name", String.class))
+                        .createdAt(toDate(row.get("status_created_at", LocalDateTime.class)))
+                        .build())
+                .author(toUser(row, "author_"))
+                .executor(toUser(row, "executor_"))
+                .build(),
+                labelId == null ? null : Label.builder()
+                        .id(labelId)
+                        .version(row.get("label_version", Long.class))
+                        .name(row.get("label_name", String.class))
+                        .createdAt(toDate(row.get("label_created_at", LocalDateTime.class)))
+                        .build());
+    }
+
+    private static User toUser(final Readable row, final String prefix) {
+        final Long id = row.get(prefix + "id", Long.class);
+        return id == null ? null : User.builder()
+                .id(id)
+                .version(row.get(prefix + "version", Long.class))
+                .firstName(row.get(prefix + "first_name", String.class))
+                .lastName(row.get(prefix + "last_name", String.class))
+                .email(row.get(prefix + "email", String.class))
+                .createdAt(toDate(row.get(prefix + "created_at", LocalDateTime.class)))
+                .build();
+    }
+
+    private static Task toTask(final List<TaskRow> rows) {
+        final Task task = rows.get(0).task();
+        final Set<Label> labels = new LinkedHashSet<>();
+        rows.stream().map(TaskRow::label).filter(Objects::nonNull).forEach(labels::add);
+        task.setLabels(labels);
+        return task;
+    }
+
+    private static Date toDate(final LocalDateTime dateTime) {
+        return dateTime == null ? null : Timestamp.valueOf(dateTime);
+    }
+
+    private record TaskRow(Task task, Label label) {
+    }
+
+    private record Filter(String condition, String parameter, Long value) {
+    }
+
+}
@@ -1,17 +1,51 @@
 package hexlet.code.repository;
 
+import com.querydsl.core.types.Predicate;
 import com.querydsl.core.types.dsl.StringPath;
 import hexlet.code.model.QTask;
 import hexlet.code.model.Task;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.querydsl.QuerydslPredicateExecutor;
 import org.springframework.data.querydsl.binding.QuerydslBinderCustomizer;
 import org.springframework.data.querydsl.binding.QuerydslBindings;
 
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 public interface TaskRepository extends
         JpaRepository<Task, Long>,
         QuerydslPredicateExecutor<Task>,
-        QuerydslBinderCustomizer<QTask> {
+        QuerydslBinderCustomizer<QTask>,
+        TaskRepositoryCustom {
+
+    @Override
+    @EntityGraph(Task.WITH_RELATIONS)
+    List<Task> findAll();
+
+    @Override
+    @EntityGraph(Task.WITH_RELATIONS)
+    Iterable<Task> findAll(Predicate predicate);
+
+    @Override
+    @EntityGraph(Task.WITH_RELATIONS)
+    Optional<Task> findById(Long id);
+
+    @EntityGraph(Task.WITH_REFERENCES)
+    List<Task> findAllByIdIn(Collection<Long> ids);
+
+    @Query("select t.id from Task t where t.updatedAt >= :since order by t.id")
+    List<Long> findIdsUpdatedSince(Date since);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<TaskText> streamAllBy();
 
     @Override
     default void customize(QuerydslBindings bindings, QTask task) {
@@ -20,6 +54,7 @@ public interface TaskRepository extends
         bindings.excluding(task.name);
         bindings.excluding(task.description);
         bindings.excluding(task.createdAt);
+        bindings.excluding(task.updatedAt);
     }
 
 }
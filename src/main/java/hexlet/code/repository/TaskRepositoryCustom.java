@@ -0,0 +1,18 @@
+package hexlet.code.repository;
+
+import com.querydsl.core.types.Predicate;
+import hexlet.code.model.Task;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface TaskRepositoryCustom {
+
+    List<Task> findFirstOrderedByCreation(Predicate predicate, long limit);
+
+    Stream<Task> streamOrderedByCreation(Predicate predicate, int fetchSize);
+
+    // of the tasks and of the statuses, labels and users they reference, in this order
+    List<Fingerprint> fingerprint(Predicate predicate);
+
+}
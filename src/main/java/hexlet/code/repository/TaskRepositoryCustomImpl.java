@@ -0,0 +1,86 @@
+package hexlet.code.repository;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.EntityPath;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.NumberPath;
+import com.querydsl.jpa.JPAExpressions;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import hexlet.code.model.QLabel;
+import hexlet.code.model.QStatus;
+import hexlet.code.model.QTask;
+import hexlet.code.model.QUser;
+import hexlet.code.model.Task;
+import jakarta.persistence.EntityManager;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+import static org.hibernate.jpa.SpecHints.HINT_SPEC_FETCH_GRAPH;
+
+public class TaskRepositoryCustomImpl implements TaskRepositoryCustom {
+
+    private final EntityManager entityManager;
+    private final JPAQueryFactory queryFactory;
+
+    public TaskRepositoryCustomImpl(final EntityManager entityManager) {
+        this.entityManager = entityManager;
+        this.queryFactory = new JPAQueryFactory(entityManager);
+    }
+
+    @Override
+    public List<Task> findFirstOrderedByCreation(final Predicate predicate, final long limit) {
+        return orderedByCreation(predicate)
+                .limit(limit)
+                .fetch();
+    }
+
+    @Override
+    public Stream<Task> streamOrderedByCreation(final Predicate predicate, final int fetchSize) {
+        return orderedByCreation(predicate)
+                .setHint(HINT_FETCH_SIZE, fetchSize)
+                .setHint(HINT_READ_ONLY, true)
+                .stream();
+    }
+
+    @Override
+    public List<Fingerprint> fingerprint(final Predicate predicate) {
+        final QTask task = QTask.task;
+        final QStatus status = QStatus.status;
+        final QLabel label = QLabel.label;
+        final QLabel taskLabel = new QLabel("taskLabel");
+        final QUser user = QUser.user;
+
+        return List.of(
+                fingerprint(task, task.id, task.version, predicate),
+                fingerprint(status, status.id, status.version,
+                        status.id.in(JPAExpressions.select(task.taskStatus.id).from(task).where(predicate))),
+                fingerprint(label, label.id, label.version,
+                        label.id.in(JPAExpressions.select(taskLabel.id).from(task)
+                                .join(task.labels, taskLabel).where(predicate))),
+                fingerprint(user, user.id, user.version,
+                        user.id.in(JPAExpressions.select(task.author.id).from(task).where(predicate))
+                                .or(user.id.in(JPAExpressions.select(task.executor.id).from(task).where(predicate)))));
+    }
+
+    private Fingerprint fingerprint(final EntityPath<?> entity, final NumberPath<Long> id,
+                                    final NumberPath<Long> version, final Predicate predicate) {
+        final Tuple row = queryFactory.select(id.count(), id.sum().coalesce(0L), version.sum().coalesce(0L))
+                .from(entity)
+                .where(predicate)
+                .fetchOne();
+        return new Fingerprint(row.get(0, Long.class), row.get(1, Long.class), row.get(2, Long.class));
+    }
+
+    private JPAQuery<Task> orderedByCreation(final Predicate predicate) {
+        final QTask task = QTask.task;
+        return queryFactory.selectFrom(task)
+                .where(predicate)
+                .orderBy(task.createdAt.asc(), task.id.asc())
+                .setHint(HINT_SPEC_FETCH_GRAPH, entityManager.getEntityGraph(Task.WITH_REFERENCES));
+    }
+
+}
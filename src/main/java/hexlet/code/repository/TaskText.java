@@ -0,0 +1,11 @@
+package hexlet.code.repository;
+
+public interface TaskText {
+
+    Long getId();
+
+    String getName();
+
+    String getDescription();
+
+}
@@ -0,0 +1,15 @@
+package hexlet.code.repository;
+
+import hexlet.code.model.TaskTombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Date;
+import java.util.List;
+
+public interface TaskTombstoneRepository extends JpaRepository<TaskTombstone, Long> {
+
+    @Query("select t.taskId from TaskTombstone t where t.deletedAt >= :since order by t.taskId")
+    List<Long> findTaskIdsDeletedSince(Date since);
+
+}
@@ -0,0 +1,5 @@
+package hexlet.code.repository;
+
+// what a login and the current user lookup need of a user, small and immutable to be cached across transactions
+public record UserCredentials(long id, String email, String password, long version) {
+}
@@ -1,12 +1,40 @@
 package hexlet.code.repository;
 
 import hexlet.code.model.User;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.Optional;
 
+import static hexlet.code.config.CacheConfig.USERS_BY_EMAIL;
+
 public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByEmail(String email);
 
+    @Cacheable(cacheNames = USERS_BY_EMAIL, unless = "#result == null")
+    @Query("""
+            select new hexlet.code.repository.UserCredentials(u.id, u.email, u.password, u.version)
+            from User u
+            where u.email = :email
+            """)
+    Optional<UserCredentials> findCredentialsByEmail(String email);
+
+    // only while the hash is still the one that was checked, and as a new version like any other update
+    @Modifying
+    @Query("""
+            update User u set u.password = :password, u.version = u.version + 1
+            where u.email = :email and u.password = :oldPassword
+            """)
+    int updatePasswordByEmail(String email, String oldPassword, String password);
+
+    @Query("""
+            select new hexlet.code.repository.Fingerprint(
+                count(u), coalesce(sum(u.id), 0L), coalesce(sum(u.version), 0L))
+            from User u
+            """)
+    Fingerprint fingerprint();
+
 }
@@ -2,6 +2,7 @@ package hexlet.code.service;
 
 import hexlet.code.dto.LabelDto;
 import hexlet.code.model.Label;
+import hexlet.code.repository.Fingerprint;
 
 import java.util.List;
 
@@ -9,6 +10,8 @@ public interface LabelService {
 
     List<Label> findAllLabels();
 
+    Fingerprint findLabelsFingerprint();
+
     Label findLabelById(long id);
 
     List<Label> findAllLabelById(List<Long> ids);
@@ -2,6 +2,7 @@ package hexlet.code.service;
 
 import hexlet.code.dto.StatusDto;
 import hexlet.code.model.Status;
+import hexlet.code.repository.Fingerprint;
 
 import java.util.List;
 
@@ -9,8 +10,12 @@ public interface StatusService {
 
     List<Status> findAllStatuses();
 
+    Fingerprint findStatusesFingerprint();
+
     Status findStatusById(long id);
 
+    List<Status> findAllStatusById(List<Long> ids);
+
     Status createStatus(StatusDto statusDto);
 
     Status updateStatusById(long id, StatusDto statusDto);
@@ -1,19 +1,45 @@
 package hexlet.code.service;
 
 import com.querydsl.core.types.Predicate;
+import hexlet.code.dto.TaskDeltaDto;
 import hexlet.code.dto.TaskDto;
+import hexlet.code.dto.TaskPageDto;
+import hexlet.code.dto.TaskUpdateDto;
 import hexlet.code.model.Task;
+import hexlet.code.repository.Fingerprint;
+
+import java.util.Date;
+import java.util.List;
+import java.util.function.Consumer;
 
 public interface TaskService {
 
     Iterable<Task> findAllTasks(Predicate predicate);
 
+    Iterable<Task> searchTasks(String text, Predicate predicate);
+
+    List<Fingerprint> findTasksFingerprint(Predicate predicate);
+
+    TaskPageDto findTasksPage(Predicate predicate, String cursor, int limit);
+
+    TaskDeltaDto findTasksChangedSince(Predicate predicate, Date since);
+
+    void exportTasks(Predicate predicate, Consumer<Task> consumer);
+
     Task findTaskById(long id);
 
     Task createTask(TaskDto taskDto);
 
     Task updateTaskById(long id, TaskDto taskDto);
 
+    Task updateTaskById(long id, TaskDto taskDto, long expectedVersion);
+
     void deleteTaskById(long id);
 
+    List<Task> createTasks(List<TaskDto> taskDtos);
+
+    List<Task> updateTasks(List<TaskUpdateDto> taskUpdateDtos);
+
+    void deleteTasks(List<Long> ids);
+
 }
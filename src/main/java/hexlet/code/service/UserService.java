@@ -1,7 +1,9 @@
 package hexlet.code.service;
 
 import hexlet.code.dto.UserDto;
+import hexlet.code.dto.UserPatchDto;
 import hexlet.code.model.User;
+import hexlet.code.repository.Fingerprint;
 
 import java.util.List;
 
@@ -9,16 +11,22 @@ public interface UserService {
 
     List<User> findAllUsers();
 
+    Fingerprint findUsersFingerprint();
+
     User findUserById(long id);
 
+    List<User> findAllUserById(List<Long> ids);
+
     User createUser(UserDto userDto);
 
     User updateUserById(long id, UserDto userDto);
 
+    User patchUserById(long id, UserPatchDto userPatchDto);
+
     void deleteUserById(long id);
 
     String getCurrentUserName();
 
-    User getCurrentUser();
+    long getCurrentUserId();
 
 }
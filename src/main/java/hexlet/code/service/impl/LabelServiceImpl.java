@@ -1,38 +1,69 @@
 package hexlet.code.service.impl;
 
+import hexlet.code.dto.ChangeDto;
 import hexlet.code.dto.LabelDto;
 import hexlet.code.exeption.NotFoundServiceException;
 import hexlet.code.model.Label;
+import hexlet.code.repository.Fingerprint;
 import hexlet.code.repository.LabelRepository;
 import hexlet.code.service.LabelService;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
 import lombok.AllArgsConstructor;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Objects;
+
+import static hexlet.code.config.MetricsConfig.SERVICE_METRIC;
+import static hexlet.code.dto.ChangeDto.LABELS;
 
 @Service
+@Timed(SERVICE_METRIC)
 @Transactional
 @AllArgsConstructor
 public class LabelServiceImpl implements LabelService {
 
     private final LabelRepository labelRepository;
 
+    private final EntityManager entityManager;
+
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
+    @Transactional(readOnly = true)
     public List<Label> findAllLabels() {
         return labelRepository.findAll();
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public Fingerprint findLabelsFingerprint() {
+        return labelRepository.fingerprint();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Label findLabelById(final long id) {
         return labelRepository.findById(id)
                 .orElseThrow(() -> new NotFoundServiceException(String.format("Not found label with 'id': %d", id)));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Label> findAllLabelById(List<Long> ids) {
-        return labelRepository.findAllById(ids);
+        // multiLoad skips the second-level cache unless a cache mode is given; with it, only the ids
+        // missing from the persistence context and the cache are selected
+        return entityManager.unwrap(Session.class).byMultipleIds(Label.class)
+                .with(CacheMode.NORMAL)
+                .enableSessionCheck(true)
+                .multiLoad(ids).stream()
+                .filter(Objects::nonNull)
+                .toList();
     }
 
     @Override
@@ -41,7 +72,9 @@ public class LabelServiceImpl implements LabelService {
                 .name(labelDto.name())
                 .build();
 
-        return labelRepository.save(label);
+        final Label created = labelRepository.save(label);
+        eventPublisher.publishEvent(ChangeDto.created(LABELS, created.getId(), created));
+        return created;
     }
 
     @Override
@@ -50,12 +83,15 @@ public class LabelServiceImpl implements LabelService {
                 .orElseThrow(() -> new NotFoundServiceException(String.format("Not found label with 'id': %d", id)));
         labelToUpdate.setName(labelDto.name());
 
-        return labelRepository.save(labelToUpdate);
+        final Label updated = labelRepository.save(labelToUpdate);
+        eventPublisher.publishEvent(ChangeDto.updated(LABELS, id, updated));
+        return updated;
     }
 
     @Override
     public void deleteLabelById(final long id) {
         labelRepository.deleteById(id);
+        eventPublisher.publishEvent(ChangeDto.deleted(LABELS, id));
     }
 
 }
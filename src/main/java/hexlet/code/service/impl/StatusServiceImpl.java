@@ -1,42 +1,80 @@
 package hexlet.code.service.impl;
 
+import hexlet.code.dto.ChangeDto;
 import hexlet.code.dto.StatusDto;
 import hexlet.code.exeption.NotFoundServiceException;
 import hexlet.code.model.Status;
+import hexlet.code.repository.Fingerprint;
 import hexlet.code.repository.StatusRepository;
 import hexlet.code.service.StatusService;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
 import lombok.AllArgsConstructor;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Objects;
+
+import static hexlet.code.config.MetricsConfig.SERVICE_METRIC;
+import static hexlet.code.dto.ChangeDto.STATUSES;
 
 @Service
+@Timed(SERVICE_METRIC)
 @Transactional
 @AllArgsConstructor
 public class StatusServiceImpl implements StatusService {
 
     private final StatusRepository statusRepository;
 
+    private final EntityManager entityManager;
+
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
+    @Transactional(readOnly = true)
     public List<Status> findAllStatuses() {
         return statusRepository.findAll();
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public Fingerprint findStatusesFingerprint() {
+        return statusRepository.fingerprint();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Status findStatusById(final long id) {
         return statusRepository.findById(id)
                 .orElseThrow(() -> new NotFoundServiceException(String.format("Not found status with 'id': %d", id)));
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<Status> findAllStatusById(final List<Long> ids) {
+        // multiLoad skips the second-level cache unless a cache mode is given; with it, only the ids
+        // missing from the persistence context and the cache are selected
+        return entityManager.unwrap(Session.class).byMultipleIds(Status.class)
+                .with(CacheMode.NORMAL)
+                .enableSessionCheck(true)
+                .multiLoad(ids).stream()
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
     @Override
     public Status createStatus(final StatusDto statusDto) {
         final Status status = Status.builder()
                 .name(statusDto.name())
                 .build();
 
-        return statusRepository.save(status);
+        final Status created = statusRepository.save(status);
+        eventPublisher.publishEvent(ChangeDto.created(STATUSES, created.getId(), created));
+        return created;
     }
 
     @Override
@@ -45,12 +83,15 @@ public class StatusServiceImpl implements StatusService {
                 .orElseThrow(() -> new NotFoundServiceException(String.format("Not found status with 'id': %d", id)));
         statusToUpdate.setName(statusDto.name());
 
-        return statusRepository.save(statusToUpdate);
+        final Status updated = statusRepository.save(statusToUpdate);
+        eventPublisher.publishEvent(ChangeDto.updated(STATUSES, id, updated));
+        return updated;
     }
 
     @Override
     public void deleteStatusById(final long id) {
         statusRepository.deleteById(id);
+        eventPublisher.publishEvent(ChangeDto.deleted(STATUSES, id));
     }
 
 }
@@ -1,43 +1,173 @@
 package hexlet.code.service.impl;
 
+import com.querydsl.core.BooleanBuilder;
 import com.querydsl.core.types.Predicate;
+import hexlet.code.component.TaskSearchIndex;
+import hexlet.code.config.ReplicaRead;
+import hexlet.code.dto.ChangeDto;
+import hexlet.code.dto.TaskDeltaDto;
 import hexlet.code.dto.TaskDto;
+import hexlet.code.dto.TaskPageDto;
+import hexlet.code.dto.TaskUpdateDto;
 import hexlet.code.exeption.NotFoundServiceException;
 import hexlet.code.model.Label;
+import hexlet.code.model.QTask;
 import hexlet.code.model.Status;
 import hexlet.code.model.Task;
+import hexlet.code.model.TaskTombstone;
 import hexlet.code.model.User;
+import hexlet.code.repository.Fingerprint;
 import hexlet.code.repository.TaskRepository;
+import hexlet.code.repository.TaskTombstoneRepository;
 import hexlet.code.service.LabelService;
 import hexlet.code.service.StatusService;
 import hexlet.code.service.TaskService;
 import hexlet.code.service.UserService;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
 import lombok.AllArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.HashSet;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static hexlet.code.config.MetricsConfig.SERVICE_METRIC;
+import static hexlet.code.dto.ChangeDto.TASKS;
 
 @Service
+@Timed(SERVICE_METRIC)
 @Transactional
 @AllArgsConstructor
 public class TaskServiceImpl implements TaskService {
 
+    public static final int MAX_PAGE_SIZE = 500;
+    public static final int EXPORT_FETCH_SIZE = 500;
+    public static final int MAX_SEARCH_HITS = 1000;
+    public static final int BATCH_FLUSH_SIZE = 50;
+    // writes are stamped before they commit, so a delta starts this much before the end of the previous one
+    public static final long SYNC_OVERLAP_MS = 5000;
+
+    private static final String CURSOR_SEPARATOR = ":";
+
     private final TaskRepository taskRepository;
 
+    private final TaskTombstoneRepository taskTombstoneRepository;
+
     private final UserService userService;
 
     private final StatusService statusService;
 
     private final LabelService labelService;
 
+    private final EntityManager entityManager;
+
+    private final TaskSearchIndex taskSearchIndex;
+
+    private final ApplicationEventPublisher eventPublisher;
+
     @Override
+    @ReplicaRead
+    @Transactional(readOnly = true)
     public Iterable<Task> findAllTasks(final Predicate predicate) {
         return taskRepository.findAll(predicate);
     }
 
     @Override
+    @ReplicaRead
+    @Transactional(readOnly = true)
+    public Iterable<Task> searchTasks(final String text, final Predicate predicate) {
+        final Map<Long, Integer> ranks = new HashMap<>();
+        final List<Task> tasks = new ArrayList<>();
+        // the filters are applied page by page, so matches ranked beyond the first page are not lost
+        taskSearchIndex.search(text, MAX_SEARCH_HITS, ids -> {
+            ids.forEach(id -> ranks.put(id, ranks.size()));
+            taskRepository.findAll(new BooleanBuilder().and(predicate).and(QTask.task.id.in(ids)))
+                    .forEach(tasks::add);
+            return tasks.size() < MAX_SEARCH_HITS;
+        });
+        tasks.sort(Comparator.comparing(task -> ranks.get(task.getId())));
+        return tasks.size() > MAX_SEARCH_HITS ? tasks.subList(0, MAX_SEARCH_HITS) : tasks;
+    }
+
+    @Override
+    @ReplicaRead
+    @Transactional(readOnly = true)
+    public List<Fingerprint> findTasksFingerprint(final Predicate predicate) {
+        return taskRepository.fingerprint(predicate);
+    }
+
+    @Override
+    @ReplicaRead
+    @Transactional(readOnly = true)
+    public TaskPageDto findTasksPage(final Predicate predicate, final String cursor, final int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException(
+                    String.format("Page limit needs to be between 1 and %d", MAX_PAGE_SIZE));
+        }
+
+        final BooleanBuilder where = new BooleanBuilder().and(predicate);
+        if (cursor != null && !cursor.isBlank()) {
+            where.and(afterCursor(cursor));
+        }
+
+        // one extra row tells whether there is a next page without a count query
+        final List<Task> tasks = taskRepository.findFirstOrderedByCreation(where, limit + 1L);
+        if (tasks.size() <= limit) {
+            return new TaskPageDto(tasks, null);
+        }
+
+        final List<Task> content = tasks.subList(0, limit);
+        return new TaskPageDto(content, toCursor(content.get(limit - 1)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TaskDeltaDto findTasksChangedSince(final Predicate predicate, final Date since) {
+        // taken before reading, a change committed while reading is sent again next time rather than missed
+        final Date watermark = new Date(System.currentTimeMillis() - SYNC_OVERLAP_MS);
+        final List<Task> tasks = new ArrayList<>();
+        taskRepository.findAll(new BooleanBuilder().and(predicate).and(QTask.task.updatedAt.goe(since)))
+                .forEach(tasks::add);
+        // a task changed so that the filters don't match it anymore has to leave the client's view as well
+        final Set<Long> matchingIds = tasks.stream().map(Task::getId).collect(Collectors.toSet());
+        final List<Long> unmatchedIds = taskRepository.findIdsUpdatedSince(since).stream()
+                .filter(id -> !matchingIds.contains(id))
+                .toList();
+        return new TaskDeltaDto(tasks, taskTombstoneRepository.findTaskIdsDeletedSince(since), unmatchedIds,
+                watermark);
+    }
+
+    @Override
+    @ReplicaRead
+    @Transactional(readOnly = true)
+    public void exportTasks(final Predicate predicate, final Consumer<Task> consumer) {
+        try (Stream<Task> tasks = taskRepository.streamOrderedByCreation(predicate, EXPORT_FETCH_SIZE)) {
+            tasks.forEach(task -> {
+                consumer.accept(task);
+                // already written out, so the persistence context doesn't have to keep it
+                entityManager.detach(task);
+            });
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Task findTaskById(final long id) {
         return taskRepository.findById(id)
                 .orElseThrow(() -> new NotFoundServiceException(String.format("Not found task with 'id': %d", id)));
@@ -45,8 +175,11 @@ public class TaskServiceImpl implements TaskService {
 
     @Override
     public Task createTask(final TaskDto taskDto) {
-        final Task task = fromDto(taskDto);
-        return taskRepository.save(task);
+        final long authorId = userService.getCurrentUserId();
+        final References references = resolveReferences(List.of(taskDto), authorId);
+        final Task task = taskRepository.save(fromDto(taskDto, references.users().get(authorId), references));
+        eventPublisher.publishEvent(ChangeDto.created(TASKS, task.getId(), task));
+        return task;
     }
 
     @Override
@@ -54,16 +187,80 @@ public class TaskServiceImpl implements TaskService {
         final Task task = taskRepository.findById(id)
                 .orElseThrow(() -> new NotFoundServiceException(String.format("Not found task with 'id': %d", id)));
         merge(task, taskDto);
+        eventPublisher.publishEvent(ChangeDto.updated(TASKS, id, task));
+        return taskRepository.save(task);
+    }
+
+    @Override
+    public Task updateTaskById(final long id, final TaskDto taskDto, final long expectedVersion) {
+        final Task task = findTaskById(id);
+        if (task.getVersion() != expectedVersion) {
+            throw new ObjectOptimisticLockingFailureException(Task.class, id);
+        }
+        merge(task, taskDto);
+        eventPublisher.publishEvent(ChangeDto.updated(TASKS, id, task));
         return taskRepository.save(task);
     }
 
     @Override
     public void deleteTaskById(final long id) {
-        taskRepository.deleteById(id);
+        taskRepository.delete(findOwnTasks(List.of(id)).get(id));
+        entityManager.persist(new TaskTombstone(id));
+        eventPublisher.publishEvent(ChangeDto.deleted(TASKS, id));
+    }
+
+    @Override
+    public List<Task> createTasks(final List<TaskDto> taskDtos) {
+        final long authorId = userService.getCurrentUserId();
+        final References references = resolveReferences(taskDtos, authorId);
+        final User author = references.users().get(authorId);
+
+        final List<Task> tasks = new ArrayList<>(taskDtos.size());
+        for (TaskDto taskDto : taskDtos) {
+            final Task task = taskRepository.save(fromDto(taskDto, author, references));
+            eventPublisher.publishEvent(ChangeDto.created(TASKS, task.getId(), task));
+            tasks.add(task);
+            // keep dirty checking cheap, the written tasks are not needed in the persistence context
+            if (tasks.size() % BATCH_FLUSH_SIZE == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        return tasks;
+    }
+
+    @Override
+    public List<Task> updateTasks(final List<TaskUpdateDto> taskUpdateDtos) {
+        // like a single update, any user can update a task, only the author can delete it
+        final Map<Long, Task> tasks = findTasks(taskUpdateDtos.stream().map(TaskUpdateDto::id).toList());
+        final References references = resolveReferences(taskUpdateDtos.stream().map(TaskUpdateDto::task).toList(),
+                null);
+
+        final List<Task> updatedTasks = new ArrayList<>(taskUpdateDtos.size());
+        for (TaskUpdateDto taskUpdateDto : taskUpdateDtos) {
+            final Task task = tasks.get(taskUpdateDto.id());
+            merge(task, fromDto(taskUpdateDto.task(), task.getAuthor(), references));
+            eventPublisher.publishEvent(ChangeDto.updated(TASKS, task.getId(), task));
+            updatedTasks.add(task);
+        }
+        return updatedTasks;
+    }
+
+    @Override
+    public void deleteTasks(final List<Long> ids) {
+        final Map<Long, Task> tasks = findOwnTasks(ids);
+        taskRepository.deleteAll(tasks.values());
+        tasks.keySet().forEach(id -> {
+            entityManager.persist(new TaskTombstone(id));
+            eventPublisher.publishEvent(ChangeDto.deleted(TASKS, id));
+        });
     }
 
     private void merge(final Task task, final TaskDto taskDto) {
-        final Task newTask = fromDto(taskDto);
+        merge(task, fromDto(taskDto, task.getAuthor(), resolveReferences(List.of(taskDto), null)));
+    }
+
+    private void merge(final Task task, final Task newTask) {
         task.setName(newTask.getName());
         task.setDescription(newTask.getDescription());
         task.setTaskStatus(newTask.getTaskStatus());
@@ -71,26 +268,101 @@ public class TaskServiceImpl implements TaskService {
         task.setExecutor(newTask.getExecutor());
     }
 
-    private Task fromDto(final TaskDto dto) {
-        final User author = userService.getCurrentUser();
-        final Status taskStatus = statusService.findStatusById(dto.taskStatusId());
+    private Predicate afterCursor(final String cursor) {
+        final Date createdAt;
+        final long id;
+        try {
+            final String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                    .split(CURSOR_SEPARATOR);
+            createdAt = new Date(Long.parseLong(parts[0]));
+            id = Long.parseLong(parts[1]);
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException(String.format("Invalid cursor: '%s'", cursor));
+        }
+
+        // same as "createdAt > c or (createdAt = c and id > i)", but with a leading range the index can seek to
+        final QTask task = QTask.task;
+        return task.createdAt.goe(createdAt)
+                .and(task.createdAt.gt(createdAt).or(task.id.gt(id)));
+    }
 
+    private String toCursor(final Task task) {
+        final String value = task.getCreatedAt().getTime() + CURSOR_SEPARATOR + task.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Map<Long, Task> findTasks(final List<Long> ids) {
+        return toMap(ids, taskRepository::findAllByIdIn, Task::getId, "task");
+    }
+
+    private Map<Long, Task> findOwnTasks(final List<Long> ids) {
+        final Map<Long, Task> tasks = findTasks(ids);
+        final String currentUserName = userService.getCurrentUserName();
+        for (Long id : ids) {
+            final Task task = tasks.get(id);
+            if (!task.getAuthor().getEmail().equals(currentUserName)) {
+                throw new AccessDeniedException(String.format("Only the author can change task with 'id': %d", id));
+            }
+        }
+        return tasks;
+    }
+
+    // one query per referenced type, whatever the number of tasks; the author of new tasks is loaded with the
+    // executors, in this transaction and not from the cache of the login
+    private References resolveReferences(final List<TaskDto> dtos, final Long authorId) {
+        final List<Long> statusIds = dtos.stream().map(TaskDto::taskStatusId).distinct().toList();
+        final List<Long> userIds = Stream.concat(dtos.stream().map(TaskDto::executorId), Stream.of(authorId))
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        final List<Long> labelIds = dtos.stream().flatMap(dto -> dto.labelIds().stream()).distinct().toList();
+
+        return new References(
+                toMap(statusIds, statusService::findAllStatusById, Status::getId, "status"),
+                toMap(userIds, userService::findAllUserById, User::getId, "user"),
+                // missing labels are skipped, as they always were for a single task
+                labelIds.isEmpty() ? Map.of() : labelService.findAllLabelById(labelIds).stream()
+                        .collect(Collectors.toMap(Label::getId, Function.identity())));
+    }
+
+    private static <T> Map<Long, T> toMap(final List<Long> ids, final Function<List<Long>, List<T>> finder,
+                                          final Function<T, Long> getId, final String type) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        final Map<Long, T> entities = finder.apply(ids).stream()
+                .collect(Collectors.toMap(getId, Function.identity()));
+        for (Long id : ids) {
+            if (!entities.containsKey(id)) {
+                throw new NotFoundServiceException(String.format("Not found %s with 'id': %d", type, id));
+            }
+        }
+        return entities;
+    }
+
+    private Task fromDto(final TaskDto dto, final User author, final References references) {
         final Task.TaskBuilder taskBuilder = Task.builder()
                 .name(dto.name())
                 .description(dto.description())
-                .taskStatus(taskStatus)
+                .taskStatus(references.statuses().get(dto.taskStatusId()))
                 .author(author);
 
         if (dto.executorId() != null) {
-            final User executor = userService.findUserById(dto.executorId());
-            taskBuilder.executor(executor);
+            taskBuilder.executor(references.users().get(dto.executorId()));
         }
 
         if (!dto.labelIds().isEmpty()) {
-            final List<Label> labels = labelService.findAllLabelById(dto.labelIds());
-            taskBuilder.labels(new HashSet<>(labels));
+            final Set<Label> labels = dto.labelIds().stream()
+                    .map(references.labels()::get)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toSet());
+            taskBuilder.labels(labels);
         }
 
         return taskBuilder.build();
     }
+
+    private record References(Map<Long, Status> statuses, Map<Long, User> users, Map<Long, Label> labels) {
+    }
+
 }
@@ -1,32 +1,51 @@
 package hexlet.code.service.impl;
 
-import hexlet.code.model.User;
+import hexlet.code.repository.UserCredentials;
 import hexlet.code.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import static hexlet.code.config.CacheConfig.USERS_BY_EMAIL;
+import static hexlet.code.config.MetricsConfig.SERVICE_METRIC;
 import static hexlet.code.config.security.SecurityConfig.DEFAULT_AUTHORITIES;
 
 @Service
+@Timed(SERVICE_METRIC)
 @RequiredArgsConstructor
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
 
     @Override
     public UserDetails loadUserByUsername(final String username) {
-        return userRepository.findByEmail(username)
+        return userRepository.findCredentialsByEmail(username)
                 .map(this::buildSpringUser)
                 .orElseThrow(() -> new UsernameNotFoundException("Not found user with 'username': " + username));
     }
 
-    private UserDetails buildSpringUser(final User user) {
+    // called after a successful login when the stored hash uses an outdated algorithm or cost;
+    // a password changed in the meantime is kept, the login still succeeds with the checked one
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = USERS_BY_EMAIL, key = "#user.username")
+    public UserDetails updatePassword(final UserDetails user, final String newPassword) {
+        userRepository.updatePasswordByEmail(user.getUsername(), user.getPassword(), newPassword);
+        return org.springframework.security.core.userdetails.User.withUserDetails(user)
+                .password(newPassword)
+                .build();
+    }
+
+    private UserDetails buildSpringUser(final UserCredentials user) {
         return new org.springframework.security.core.userdetails.User(
-                user.getEmail(),
-                user.getPassword(),
+                user.email(),
+                user.password(),
                 DEFAULT_AUTHORITIES
         );
     }
@@ -1,11 +1,16 @@
 package hexlet.code.service.impl;
 
 import hexlet.code.dto.UserDto;
+import hexlet.code.dto.UserPatchDto;
 import hexlet.code.exeption.NotFoundServiceException;
 import hexlet.code.model.User;
+import hexlet.code.repository.Fingerprint;
 import hexlet.code.repository.UserRepository;
 import hexlet.code.service.UserService;
+import io.micrometer.core.annotation.Timed;
 import lombok.AllArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -13,7 +18,11 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
+import static hexlet.code.config.CacheConfig.USERS_BY_EMAIL;
+import static hexlet.code.config.MetricsConfig.SERVICE_METRIC;
+
 @Service
+@Timed(SERVICE_METRIC)
 @Transactional
 @AllArgsConstructor
 public class UserServiceImpl implements UserService {
@@ -23,16 +32,30 @@ public class UserServiceImpl implements UserService {
     private final PasswordEncoder passwordEncoder;
 
     @Override
+    @Transactional(readOnly = true)
     public List<User> findAllUsers() {
         return userRepository.findAll();
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public Fingerprint findUsersFingerprint() {
+        return userRepository.fingerprint();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public User findUserById(final long id) {
         return userRepository.findById(id)
                 .orElseThrow(() -> new NotFoundServiceException(String.format("Not found user with 'id': %d", id)));
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<User> findAllUserById(final List<Long> ids) {
+        return userRepository.findAllById(ids);
+    }
+
     @Override
     public User createUser(final UserDto userDto) {
         final User user = User.builder()
@@ -46,9 +69,9 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @CacheEvict(cacheNames = USERS_BY_EMAIL, allEntries = true)
     public User updateUserById(final long id, final UserDto userDto) {
-        final User userToUpdate = userRepository.findById(id)
-                .orElseThrow(() -> new NotFoundServiceException(String.format("Not found user with 'id': %d", id)));
+        final User userToUpdate = findOwnUser(id);
         userToUpdate.setEmail(userDto.email());
         userToUpdate.setFirstName(userDto.firstName());
         userToUpdate.setLastName(userDto.lastName());
@@ -57,9 +80,31 @@ public class UserServiceImpl implements UserService {
         return userRepository.save(userToUpdate);
     }
 
+    // BCrypt is the expensive part of an update, so the password is hashed only when a new one is given
     @Override
+    @CacheEvict(cacheNames = USERS_BY_EMAIL, allEntries = true)
+    public User patchUserById(final long id, final UserPatchDto userPatchDto) {
+        final User userToUpdate = findOwnUser(id);
+        if (userPatchDto.email() != null) {
+            userToUpdate.setEmail(userPatchDto.email());
+        }
+        if (userPatchDto.firstName() != null) {
+            userToUpdate.setFirstName(userPatchDto.firstName());
+        }
+        if (userPatchDto.lastName() != null) {
+            userToUpdate.setLastName(userPatchDto.lastName());
+        }
+        if (userPatchDto.password() != null) {
+            userToUpdate.setPassword(passwordEncoder.encode(userPatchDto.password()));
+        }
+
+        return userRepository.save(userToUpdate);
+    }
+
+    @Override
+    @CacheEvict(cacheNames = USERS_BY_EMAIL, allEntries = true)
     public void deleteUserById(final long id) {
-        userRepository.deleteById(id);
+        userRepository.delete(findOwnUser(id));
     }
 
     @Override
@@ -68,11 +113,22 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    public User getCurrentUser() {
+    @Transactional(readOnly = true)
+    public long getCurrentUserId() {
         final String currentUserName = getCurrentUserName();
-        return userRepository.findByEmail(currentUserName)
+        return userRepository.findCredentialsByEmail(currentUserName)
                 .orElseThrow(() -> new NotFoundServiceException(
-                        String.format("Not found user with 'email': %s", currentUserName)));
+                        String.format("Not found user with 'email': %s", currentUserName)))
+                .id();
+    }
+
+    private User findOwnUser(final long id) {
+        final User user = userRepository.findById(id)
+                .orElseThrow(() -> new NotFoundServiceException(String.format("Not found user with 'id': %d", id)));
+        if (!user.getEmail().equals(getCurrentUserName())) {
+            throw new AccessDeniedException(String.format("Only the user can change user with 'id': %d", id));
+        }
+        return user;
     }
 
 }
@@ -0,0 +1,77 @@
+package hexlet.code;
+
+import hexlet.code.config.TestConfig;
+import hexlet.code.utils.TestUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import static hexlet.code.config.TestConfig.TEST_PROFILE;
+import static hexlet.code.controller.StatusController.STATUS_CONTROLLER_PATH;
+import static hexlet.code.utils.TestUtils.TEST_METRICS_USERNAME;
+import static hexlet.code.utils.TestUtils.TEST_USERNAME;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles(TEST_PROFILE)
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(webEnvironment = RANDOM_PORT, classes = TestConfig.class)
+class MetricsTest {
+
+    @Autowired
+    private TestUtils utils;
+
+    @AfterEach
+    public void clear() {
+        utils.tearDown();
+    }
+
+    @Test
+    void prometheusTest() throws Exception {
+        utils.createDefaultUser();
+        utils.createDefaultStatus();
+        utils.perform(get(utils.getBaseUrl() + STATUS_CONTROLLER_PATH), TEST_USERNAME).andExpect(status().isOk());
+
+        final MockHttpServletResponse response = utils.perform(get("/actuator/prometheus"), TEST_METRICS_USERNAME)
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse();
+
+        assertThat(response.getContentAsString())
+                .contains("http_server_requests_seconds_count")
+                .contains("app_service_seconds_count{class=\"hexlet.code.service.impl.StatusServiceImpl\"")
+                .contains("spring_data_repository_invocations_seconds_count")
+                .contains("jwt_verifications_seconds_count{result=\"success\"")
+                .contains("cache_gets_total{cache=\"jwtTokens\"")
+                .contains("password_encoder_seconds_count{operation=\"encode\"")
+                .contains("hikaricp_connections_active");
+    }
+
+    @Test
+    void anonymousActuatorTest() throws Exception {
+        utils.perform(get("/actuator/prometheus")).andExpect(status().isUnauthorized());
+        utils.perform(get("/actuator/metrics")).andExpect(status().isUnauthorized());
+        utils.perform(get("/actuator/health")).andExpect(status().isOk());
+    }
+
+    @Test
+    void userActuatorTest() throws Exception {
+        // any user can register itself, it doesn't make the metrics readable
+        utils.perform(get("/actuator/prometheus"), TEST_USERNAME).andExpect(status().isForbidden());
+        utils.perform(get("/actuator/metrics"), TEST_USERNAME).andExpect(status().isForbidden());
+        utils.perform(get("/actuator/health"), TEST_USERNAME).andExpect(status().isOk());
+        utils.perform(get("/actuator/metrics"), TEST_METRICS_USERNAME).andExpect(status().isOk());
+    }
+
+}
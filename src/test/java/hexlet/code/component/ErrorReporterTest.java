@@ -0,0 +1,59 @@
+package hexlet.code.component;
+
+import hexlet.code.utils.StubErrorSink;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ErrorReporterTest {
+
+    private final StubErrorSink errorSink = new StubErrorSink();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void aggregateTest() {
+        final ErrorReporter errorReporter = new ErrorReporter(errorSink, meterRegistry, 3600, 2, 1.0);
+
+        // identical errors are sent once with their count
+        errorReporter.serverError("boom");
+        errorReporter.serverError("boom");
+        errorReporter.serverError("boom");
+        errorReporter.clientError("not found");
+        // over the limit of distinct errors
+        errorReporter.serverError("other");
+        errorReporter.flush();
+
+        assertThat(errorSink.getMessages()).containsExactlyInAnyOrder("ERROR: boom (x3)", "WARNING: not found");
+        assertEquals(2, counter("sent"));
+        assertEquals(1, counter("dropped"));
+
+        // a new window
+        errorSink.clear();
+        errorReporter.serverError("boom");
+        errorReporter.close();
+        assertEquals(List.of("ERROR: boom"), errorSink.getMessages());
+    }
+
+    @Test
+    void sampleClientErrorsTest() {
+        final ErrorReporter errorReporter = new ErrorReporter(errorSink, meterRegistry, 3600, 100, 0.0);
+
+        errorReporter.clientError("not found");
+        errorReporter.clientError("forbidden");
+        errorReporter.serverError("boom");
+        errorReporter.close();
+
+        assertEquals(List.of("ERROR: boom"), errorSink.getMessages());
+        assertEquals(2, counter("sampled_out"));
+    }
+
+    private double counter(final String outcome) {
+        return meterRegistry.counter(ErrorReporter.METRIC, "outcome", outcome).count();
+    }
+
+}
@@ -0,0 +1,57 @@
+package hexlet.code.component;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.Map;
+
+import static hexlet.code.component.JWTHelper.TOKEN_CACHE_NAME;
+import static hexlet.code.component.JWTHelper.VERIFICATIONS_METRIC;
+import static io.jsonwebtoken.SignatureAlgorithm.HS256;
+import static io.jsonwebtoken.impl.TextCodec.BASE64;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JWTHelperTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final JWTHelper jwtHelper = new JWTHelper("issuer", 60L, 0L, "secret", 100L, 600L, meterRegistry);
+
+    @Test
+    void verifyTest() {
+        // repeat verification is served from the cache
+        final String token = jwtHelper.expiring(Map.of("username", "user@email.com"));
+        final Map<String, Object> claims = jwtHelper.verify(token);
+        assertEquals("user@email.com", claims.get("username"));
+        assertSame(claims, jwtHelper.verify(token));
+        assertEquals(1, meterRegistry.get(VERIFICATIONS_METRIC).tag("result", "success").timer().count());
+        assertEquals(1, meterRegistry.get("cache.gets").tag("cache", TOKEN_CACHE_NAME).tag("result", "hit")
+                .functionCounter().count());
+
+        // tampered signature
+        final String tampered = token.substring(0, token.length() - 2)
+                + (token.endsWith("AA") ? "BB" : "AA");
+        assertThrows(SignatureException.class, () -> jwtHelper.verify(tampered));
+
+        // foreign key
+        final String foreign = new JWTHelper("issuer", 60L, 0L, "other", 100L, 600L, new SimpleMeterRegistry())
+                .expiring(Map.of("username", "user@email.com"));
+        assertThrows(SignatureException.class, () -> jwtHelper.verify(foreign));
+
+        // expired
+        final String expired = Jwts.builder()
+                .signWith(HS256, BASE64.encode("secret"))
+                .setIssuer("issuer")
+                .setExpiration(new Date(System.currentTimeMillis() - 1000))
+                .compact();
+        assertThrows(ExpiredJwtException.class, () -> jwtHelper.verify(expired));
+        assertEquals(3, meterRegistry.get(VERIFICATIONS_METRIC).tag("result", "failure").timer().count());
+    }
+
+}
@@ -0,0 +1,33 @@
+package hexlet.code.component;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TaskSearchIndexTest {
+
+    @Test
+    void searchTest() throws Exception {
+        final TaskSearchIndex index = new TaskSearchIndex("");
+        index.index(1, "write report", "quarterly numbers");
+        index.index(2, "read report", null);
+        index.refresh();
+        final List<Long> ids = new ArrayList<>();
+        index.search("report", 10, ids::addAll);
+        assertThat(ids).containsExactlyInAnyOrder(1L, 2L);
+        index.close();
+    }
+
+    @Test
+    void singleInstanceTest() throws Exception {
+        // only the first web dyno keeps the index, others would miss its writes
+        new TaskSearchIndex("web.1").close();
+        new TaskSearchIndex("run.1234").close();
+        assertThrows(IllegalStateException.class, () -> new TaskSearchIndex("web.2"));
+    }
+
+}
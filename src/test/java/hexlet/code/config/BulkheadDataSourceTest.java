@@ -0,0 +1,71 @@
+package hexlet.code.config;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BulkheadDataSourceTest {
+
+    private final DataSource dataSource = mock(DataSource.class);
+    private final Connection connection = mock(Connection.class);
+
+    @Test
+    void waitForConnectionTest() throws Exception {
+        when(dataSource.getConnection()).thenReturn(connection);
+        final BulkheadDataSource bulkhead = new BulkheadDataSource(dataSource, 1, 5000);
+
+        final Connection first = bulkhead.getConnection();
+        final CompletableFuture<Connection> second = CompletableFuture.supplyAsync(() -> {
+            try {
+                return bulkhead.getConnection();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        while (bulkhead.getWaitingCount() == 0) {
+            Thread.onSpinWait();
+        }
+        assertFalse(second.isDone());
+
+        first.close();
+        second.get(5, TimeUnit.SECONDS).close();
+        verify(connection, times(2)).close();
+    }
+
+    @Test
+    void timeoutTest() throws Exception {
+        when(dataSource.getConnection()).thenReturn(connection);
+        final BulkheadDataSource bulkhead = new BulkheadDataSource(dataSource, 1, 10);
+
+        final Connection first = bulkhead.getConnection();
+        assertThrows(SQLTransientConnectionException.class, bulkhead::getConnection);
+
+        // closing twice returns the permit once
+        first.close();
+        first.close();
+        bulkhead.getConnection();
+        assertThrows(SQLTransientConnectionException.class, bulkhead::getConnection);
+    }
+
+    @Test
+    void releaseWhenPoolFailsTest() throws Exception {
+        when(dataSource.getConnection()).thenThrow(new SQLException("pool is closed")).thenReturn(connection);
+        final BulkheadDataSource bulkhead = new BulkheadDataSource(dataSource, 1, 10);
+
+        assertThrows(SQLException.class, bulkhead::getConnection);
+        bulkhead.getConnection();
+    }
+
+}
@@ -0,0 +1,110 @@
+package hexlet.code.config;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReadWriteRoutingDataSourceTest {
+
+    private static final long MAX_LAG_MS = 200;
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void init() {
+        final DataSource primary = database("primary");
+        final DataSource replica = database("replica");
+        final DataSource dataSource = new LazyConnectionDataSourceProxy(
+                new ReadWriteRoutingDataSource(primary, replica, MAX_LAG_MS));
+        final DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void clear() {
+        SecurityContextHolder.clearContext();
+        ReadWriteRoutingDataSource.setReplicaRead(false);
+    }
+
+    @Test
+    void routeTest() {
+        // only marked read-only transactions go to the replica, the others and plain statements to the primary
+        assertEquals("replica", readFromReplica());
+        assertEquals("primary", readOnly.execute(status -> readName()));
+        assertEquals("primary", readWrite.execute(status -> readName()));
+        assertEquals("primary", readName());
+
+        // a marked read joining a read-write transaction
+        ReadWriteRoutingDataSource.setReplicaRead(true);
+        assertEquals("primary", readWrite.execute(status -> readName()));
+    }
+
+    @Test
+    void readOwnWritesTest() throws Exception {
+        login("writer");
+        readWrite.executeWithoutResult(status -> jdbcTemplate.update("UPDATE db SET name = 'written'"));
+
+        // the writer reads from the primary until the replica has caught up, other users are not affected
+        assertEquals("written", readFromReplica());
+        login("reader");
+        assertEquals("replica", readFromReplica());
+
+        login("writer");
+        Thread.sleep(MAX_LAG_MS * 2);
+        assertEquals("replica", readFromReplica());
+    }
+
+    @Test
+    void rolledBackWriteTest() {
+        login("writer");
+        readWrite.executeWithoutResult(status -> {
+            jdbcTemplate.update("UPDATE db SET name = 'written'");
+            status.setRollbackOnly();
+        });
+        assertEquals("replica", readFromReplica());
+    }
+
+    private String readFromReplica() {
+        ReadWriteRoutingDataSource.setReplicaRead(true);
+        try {
+            return readOnly.execute(status -> readName());
+        } finally {
+            ReadWriteRoutingDataSource.setReplicaRead(false);
+        }
+    }
+
+    private String readName() {
+        return jdbcTemplate.queryForObject("SELECT name FROM db", String.class);
+    }
+
+    private static void login(final String name) {
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken(name, null));
+    }
+
+    private static DataSource database(final String name) {
+        final JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:routing_" + name + ";DB_CLOSE_DELAY=-1");
+        final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS db");
+        jdbcTemplate.execute("CREATE TABLE db (name VARCHAR(16))");
+        jdbcTemplate.update("INSERT INTO db VALUES (?)", name);
+        return dataSource;
+    }
+
+}
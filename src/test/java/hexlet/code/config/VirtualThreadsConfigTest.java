@@ -0,0 +1,43 @@
+package hexlet.code.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.context.PropertyPlaceholderAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VirtualThreadsConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(PropertyPlaceholderAutoConfiguration.class))
+            .withUserConfiguration(VirtualThreadsConfig.class)
+            .withBean("dataSource", DataSource.class, JdbcDataSource::new)
+            .withBean(MeterRegistry.class, SimpleMeterRegistry::new);
+
+    @Test
+    void bulkheadTest() {
+        // the data source is wrapped on any Java version, only the request threads need Java 21
+        contextRunner.withPropertyValues(VirtualThreadsConfig.ENABLED + "=true", "datasource.bulkhead.permits=3")
+                .run(context -> {
+                    assertThat(context.getBean(DataSource.class)).isInstanceOf(BulkheadDataSource.class);
+                    assertThat(context.getBean(MeterRegistry.class)
+                            .get(BulkheadDataSource.METRIC + ".available")
+                            .tag("name", "dataSource")
+                            .gauge()
+                            .value()).isEqualTo(3);
+                });
+    }
+
+    @Test
+    void disabledTest() {
+        contextRunner.run(context ->
+                assertThat(context.getBean(DataSource.class)).isNotInstanceOf(BulkheadDataSource.class));
+    }
+
+}
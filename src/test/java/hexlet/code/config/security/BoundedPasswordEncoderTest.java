@@ -0,0 +1,84 @@
+package hexlet.code.config.security;
+
+import hexlet.code.exeption.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoundedPasswordEncoderTest {
+
+    @Test
+    void rejectWhenSaturatedTest() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final PasswordEncoder slowEncoder = new BlockingPasswordEncoder(started, release);
+
+        try (BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(slowEncoder, 1, 1, 5000,
+                new SimpleMeterRegistry())) {
+            // one hash running and one waiting in the queue
+            final CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("first"));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            final CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("second"));
+            while (encoder.getQueuedCount() == 0) {
+                Thread.onSpinWait();
+            }
+
+            assertThrows(TooManyRequestsException.class, () -> encoder.encode("third"));
+
+            release.countDown();
+            assertEquals("first", running.get(5, TimeUnit.SECONDS));
+            assertEquals("second", queued.get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void timeoutTest() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        try (BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(
+                new BlockingPasswordEncoder(new CountDownLatch(1), release), 1, 1, 50, new SimpleMeterRegistry())) {
+            assertThrows(TooManyRequestsException.class, () -> encoder.matches("password", "password"));
+            release.countDown();
+        }
+    }
+
+    private static final class BlockingPasswordEncoder implements PasswordEncoder {
+
+        private final CountDownLatch started;
+        private final CountDownLatch release;
+
+        private BlockingPasswordEncoder(final CountDownLatch started, final CountDownLatch release) {
+            this.started = started;
+            this.release = release;
+        }
+
+        @Override
+        public String encode(final CharSequence rawPassword) {
+            await();
+            return rawPassword.toString();
+        }
+
+        @Override
+        public boolean matches(final CharSequence rawPassword, final String encodedPassword) {
+            await();
+            return rawPassword.toString().equals(encodedPassword);
+        }
+
+        private void await() {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,163 @@
+package hexlet.code.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import hexlet.code.config.TestConfig;
+import hexlet.code.dto.LabelDto;
+import hexlet.code.dto.StatusDto;
+import hexlet.code.model.Status;
+import hexlet.code.repository.StatusRepository;
+import hexlet.code.utils.TestUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static hexlet.code.component.ChangeFeed.RESET_EVENT;
+import static hexlet.code.config.TestConfig.TEST_PROFILE;
+import static hexlet.code.controller.ChangeFeedController.CHANGE_FEED_CONTROLLER_PATH;
+import static hexlet.code.controller.ChangeFeedController.LAST_EVENT_ID;
+import static hexlet.code.controller.StatusController.ID;
+import static hexlet.code.controller.StatusController.STATUS_CONTROLLER_PATH;
+import static hexlet.code.utils.TestUtils.TEST_USERNAME;
+import static hexlet.code.utils.TestUtils.asJson;
+import static hexlet.code.utils.TestUtils.fromJson;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+@ActiveProfiles(TEST_PROFILE)
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(webEnvironment = RANDOM_PORT, classes = TestConfig.class)
+class ChangeFeedControllerTest {
+
+    @Autowired
+    private StatusRepository statusRepository;
+
+    @Autowired
+    private TestUtils utils;
+
+    @BeforeEach
+    public void init() throws Exception {
+        utils.createDefaultUser();
+    }
+
+    @AfterEach
+    public void clear() {
+        utils.tearDown();
+    }
+
+    @Test
+    void subscribeTest() throws Exception {
+        // only the changes of the requested entities, once committed
+        final MvcResult subscription = subscribe(get(utils.getBaseUrl() + CHANGE_FEED_CONTROLLER_PATH)
+                .param("entities", "statuses"));
+
+        utils.createDefaultStatus().andExpect(status().isCreated());
+        utils.createDefaultLabel().andExpect(status().isCreated());
+        final Status status = statusRepository.findAll().get(0);
+        utils.perform(put(utils.getBaseUrl() + STATUS_CONTROLLER_PATH + ID, status.getId())
+                        .content(asJson(new StatusDto("updated")))
+                        .contentType(APPLICATION_JSON), TEST_USERNAME)
+                .andExpect(status().isOk());
+        utils.perform(delete(utils.getBaseUrl() + STATUS_CONTROLLER_PATH + ID, status.getId()), TEST_USERNAME)
+                .andExpect(status().isOk());
+
+        final List<Map<String, String>> events = awaitEvents(subscription, 3);
+        assertThat(events).hasSize(3);
+        final List<JsonNode> changes = new ArrayList<>();
+        for (Map<String, String> event : events) {
+            changes.add(fromJson(event.get("data"), new TypeReference<>() {
+            }));
+        }
+        assertThat(changes).allMatch(change -> change.get("entity").asText().equals("statuses"))
+                .allMatch(change -> change.get("id").asLong() == status.getId());
+        assertThat(changes).map(change -> change.get("type").asText())
+                .containsExactly("CREATED", "UPDATED", "DELETED");
+        assertEquals("updated", changes.get(1).get("data").get("name").asText());
+
+        // unknown entities
+        utils.perform(get(utils.getBaseUrl() + CHANGE_FEED_CONTROLLER_PATH).param("entities", "users"), TEST_USERNAME)
+                .andExpect(status().isUnprocessableEntity());
+
+        // forbidden
+        utils.perform(get(utils.getBaseUrl() + CHANGE_FEED_CONTROLLER_PATH)).andExpect(status().isForbidden());
+    }
+
+    @Test
+    void resumeTest() throws Exception {
+        final MvcResult subscription = subscribe(get(utils.getBaseUrl() + CHANGE_FEED_CONTROLLER_PATH));
+        utils.createStatus(new StatusDto("first")).andExpect(status().isCreated());
+        utils.createLabel(new LabelDto("second")).andExpect(status().isCreated());
+        final List<Map<String, String>> events = awaitEvents(subscription, 2);
+
+        // what came after the last seen event
+        final MvcResult resumed = subscribe(get(utils.getBaseUrl() + CHANGE_FEED_CONTROLLER_PATH)
+                .header(LAST_EVENT_ID, events.get(0).get("id")));
+        final List<Map<String, String>> missed = awaitEvents(resumed, 1);
+        assertThat(missed).hasSize(1);
+        assertEquals(events.get(1), missed.get(0));
+
+        // too old to be resumed
+        final MvcResult reset = subscribe(get(utils.getBaseUrl() + CHANGE_FEED_CONTROLLER_PATH)
+                .header(LAST_EVENT_ID, 1));
+        assertEquals(RESET_EVENT, awaitEvents(reset, 1).get(0).get("event"));
+    }
+
+    private MvcResult subscribe(final MockHttpServletRequestBuilder request) throws Exception {
+        return utils.perform(request, TEST_USERNAME)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    // the fields of the events written so far, waiting until there are at least the given number of them
+    private static List<Map<String, String>> awaitEvents(final MvcResult subscription, final int count)
+            throws Exception {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        List<Map<String, String>> events = parseEvents(subscription.getResponse().getContentAsString());
+        while (events.size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            events = parseEvents(subscription.getResponse().getContentAsString());
+        }
+        return events;
+    }
+
+    // an event ends with a blank line, the one still being written is left out
+    private static List<Map<String, String>> parseEvents(final String stream) {
+        final List<Map<String, String>> events = new ArrayList<>();
+        for (String block : stream.substring(0, stream.lastIndexOf("\n\n") + 1).split("\n\n")) {
+            final Map<String, String> fields = new HashMap<>();
+            for (String line : block.split("\n")) {
+                final int colon = line.indexOf(':');
+                if (colon > 0) {
+                    fields.put(line.substring(0, colon), line.substring(colon + 1));
+                }
+            }
+            if (fields.containsKey("data")) {
+                events.add(fields);
+            }
+        }
+        return events;
+    }
+
+}
@@ -0,0 +1,79 @@
+package hexlet.code.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.HttpHeaders.ACCEPT_ENCODING;
+import static org.springframework.http.HttpHeaders.CACHE_CONTROL;
+import static org.springframework.http.HttpHeaders.CONTENT_ENCODING;
+import static org.springframework.http.HttpHeaders.IF_MODIFIED_SINCE;
+import static org.springframework.http.HttpHeaders.LAST_MODIFIED;
+import static org.springframework.http.HttpHeaders.VARY;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class FrontendResourcesTest {
+
+    private static final String BUNDLE = "/static/js/main.3f2a9c1e.js";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void getHashedAssetTest() throws Exception {
+        final MockHttpServletResponse response = mockMvc.perform(get(BUNDLE))
+                .andReturn()
+                .getResponse();
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader(CACHE_CONTROL)).isEqualTo("max-age=31536000, public, immutable");
+        assertThat(response.getHeader(CONTENT_ENCODING)).isNull();
+        assertThat(response.getContentAsString()).contains("task manager");
+    }
+
+    @Test
+    void getPreCompressedAssetTest() throws Exception {
+        final MockHttpServletResponse response = mockMvc.perform(get(BUNDLE).header(ACCEPT_ENCODING, "gzip, deflate"))
+                .andReturn()
+                .getResponse();
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader(CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(response.getHeaders(VARY)).contains(ACCEPT_ENCODING);
+        assertThat(response.getContentType()).contains("javascript");
+    }
+
+    @Test
+    void getShellTest() throws Exception {
+        final MockHttpServletResponse response = mockMvc.perform(get("/tasks"))
+                .andReturn()
+                .getResponse();
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader(CACHE_CONTROL)).isEqualTo("no-cache");
+        assertThat(response.getContentType()).startsWith("text/html");
+        assertThat(response.getContentAsString()).contains("<div id=\"root\">");
+        assertThat(response.getHeader(LAST_MODIFIED)).isNotNull();
+
+        final MockHttpServletResponse notModified = mockMvc
+                .perform(get("/tasks").header(IF_MODIFIED_SINCE, response.getHeader(LAST_MODIFIED)))
+                .andReturn()
+                .getResponse();
+
+        assertThat(notModified.getStatus()).isEqualTo(304);
+
+        final MockHttpServletResponse compressed = mockMvc.perform(get("/users").header(ACCEPT_ENCODING, "gzip"))
+                .andReturn()
+                .getResponse();
+
+        assertThat(compressed.getStatus()).isEqualTo(200);
+        assertThat(compressed.getHeader(CONTENT_ENCODING)).isEqualTo("gzip");
+    }
+
+}
@@ -6,6 +6,9 @@ import hexlet.code.dto.StatusDto;
 import hexlet.code.model.Status;
 import hexlet.code.repository.StatusRepository;
 import hexlet.code.utils.TestUtils;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -48,6 +51,9 @@ class StatusControllerTest {
     @Autowired
     private TestUtils utils;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     @BeforeEach
     public void init() throws Exception {
         utils.createDefaultUser();
@@ -186,4 +192,35 @@ class StatusControllerTest {
         assertEquals(1, statusRepository.count());
     }
 
+    @Test
+    void getStatusFromSecondLevelCacheTest() throws Exception {
+        utils.createDefaultStatus();
+        final Long statusId = statusRepository.findAll().get(0).getId();
+        final Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        assertEquals(utils.getTestStatusDto().name(), getStatusName(statusId));
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertThat(statistics.getSecondLevelCacheHitCount()).isPositive();
+
+        // an update goes through to the cache
+        utils.perform(put(utils.getBaseUrl() + STATUS_CONTROLLER_PATH + ID, statusId)
+                .content(asJson(new StatusDto("new status")))
+                .contentType(APPLICATION_JSON), TEST_USERNAME).andExpect(status().isOk());
+        statistics.clear();
+        assertEquals("new status", getStatusName(statusId));
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    private String getStatusName(final Long id) throws Exception {
+        final MockHttpServletResponse response = utils
+                .perform(get(utils.getBaseUrl() + STATUS_CONTROLLER_PATH + ID, id), TEST_USERNAME)
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse();
+        final Status status = fromJson(response.getContentAsString(), new TypeReference<>() {
+        });
+        return status.getName();
+    }
+
 }
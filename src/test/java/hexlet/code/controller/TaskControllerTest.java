@@ -1,14 +1,31 @@
 package hexlet.code.controller;
 
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import hexlet.code.config.TestConfig;
+import hexlet.code.dto.LabelDto;
+import hexlet.code.dto.StatusDto;
+import hexlet.code.dto.TaskBatchDto;
+import hexlet.code.dto.TaskBatchUpdateDto;
+import hexlet.code.dto.TaskDeltaDto;
 import hexlet.code.dto.TaskDto;
+import hexlet.code.dto.TaskPageDto;
+import hexlet.code.dto.TaskUpdateDto;
+import hexlet.code.dto.UserDto;
+import hexlet.code.model.Label;
+import hexlet.code.model.Status;
 import hexlet.code.model.Task;
 import hexlet.code.repository.LabelRepository;
 import hexlet.code.repository.StatusRepository;
 import hexlet.code.repository.TaskRepository;
+import hexlet.code.repository.UserCredentials;
 import hexlet.code.repository.UserRepository;
 import hexlet.code.utils.TestUtils;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.EntityStatistics;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -16,30 +33,54 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
 import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
+import static hexlet.code.config.CacheConfig.USERS_BY_EMAIL;
 import static hexlet.code.config.TestConfig.TEST_PROFILE;
 import static hexlet.code.controller.StatusController.STATUS_CONTROLLER_PATH;
+import static hexlet.code.controller.TaskController.BATCH;
+import static hexlet.code.controller.TaskController.EXPORT;
+import static hexlet.code.controller.TaskController.PAGE;
 import static hexlet.code.controller.TaskController.TASK_CONTROLLER_PATH;
+import static hexlet.code.controller.TaskController.UPDATED_SINCE;
 import static hexlet.code.controller.UserController.ID;
 import static hexlet.code.utils.TestUtils.TEST_USERNAME;
+import static hexlet.code.utils.TestUtils.TEST_USERNAME_2;
 import static hexlet.code.utils.TestUtils.asJson;
 import static hexlet.code.utils.TestUtils.fromJson;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+import static org.springframework.http.HttpHeaders.ETAG;
+import static org.springframework.http.HttpHeaders.IF_MATCH;
+import static org.springframework.http.HttpHeaders.IF_NONE_MATCH;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @AutoConfigureMockMvc
@@ -63,6 +104,12 @@ class TaskControllerTest {
     @Autowired
     private TestUtils utils;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheManager cacheManager;
+
     @BeforeEach
     public void init() throws Exception {
         utils.createDefaultUser();
@@ -109,6 +156,144 @@ class TaskControllerTest {
         utils.perform(get(utils.getBaseUrl() + TASK_CONTROLLER_PATH)).andExpect(status().isForbidden());
     }
 
+    @Test
+    void getAllTasksStatementCountTest() throws Exception {
+        // one task
+        createTaskWithOwnRelations(0);
+        final long statementsForOneTask = countStatementsOfGetAllTasks(1);
+
+        // many tasks, each with its own status, label and executor
+        for (int i = 1; i < 5; i++) {
+            createTaskWithOwnRelations(i);
+        }
+        final long statementsForManyTasks = countStatementsOfGetAllTasks(5);
+
+        assertEquals(statementsForOneTask, statementsForManyTasks);
+    }
+
+    @Test
+    void createTaskWithCachedAuthorTest() throws Exception {
+        createDefaultTask().andExpect(status().isCreated());
+        final CacheStats before = usersByEmailStats();
+
+        createDefaultTask().andExpect(status().isCreated());
+        final CacheStats after = usersByEmailStats();
+
+        assertEquals(before.missCount(), after.missCount());
+        assertThat(after.hitCount()).isGreaterThan(before.hitCount());
+        // only what a login needs is cached, not the entity
+        assertThat(cacheManager.getCache(USERS_BY_EMAIL).get(TEST_USERNAME).get()).isInstanceOf(UserCredentials.class);
+        assertThat(taskRepository.findAll()).extracting(task -> task.getAuthor().getEmail())
+                .containsOnly(TEST_USERNAME);
+    }
+
+    @Test
+    void createTaskWithCachedReferencesTest() throws Exception {
+        final TaskDto taskDto = new TaskDto("name", "description", statusRepository.findAll().get(0).getId(),
+                List.of(labelRepository.findAll().get(0).getId()), null);
+        createTask(taskDto).andExpect(status().isCreated());
+
+        // the status and the labels are taken from the second-level cache, without a statement
+        final Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        createTask(taskDto).andExpect(status().isCreated());
+        for (Class<?> type : List.of(Status.class, Label.class)) {
+            final EntityStatistics entityStatistics = statistics.getEntityStatistics(type.getName());
+            assertEquals(0, entityStatistics.getLoadCount(), type.getSimpleName());
+            assertThat(entityStatistics.getCacheHitCount()).as(type.getSimpleName()).isPositive();
+        }
+    }
+
+    @Test
+    void searchTasksTest() throws Exception {
+        createDefaultTask();
+        final Long executorId = userRepository.findAll().get(0).getId();
+        final Long taskStatusId = statusRepository.findAll().get(0).getId();
+        final Long labelId = labelRepository.findAll().get(0).getId();
+        createTask(new TaskDto("Fix login page", "Users can not sign in with long passwords", taskStatusId,
+                List.of(labelId), executorId)).andExpect(status().isCreated());
+
+        // by name and by description
+        assertThat(searchTasks("?q=login")).extracting(Task::getName).containsExactly("Fix login page");
+        assertThat(searchTasks("?q=PASSWORDS")).extracting(Task::getName).containsExactly("Fix login page");
+        assertThat(searchTasks("?q=login%20unknown")).isEmpty();
+
+        // combined with filter
+        assertThat(searchTasks("?q=login&taskStatus=" + taskStatusId)).hasSize(1);
+        assertThat(searchTasks("?q=login&taskStatus=" + (taskStatusId + 1))).isEmpty();
+
+        // updated and deleted tasks
+        final Task task = taskRepository.findAll().stream()
+                .filter(t -> t.getName().equals("Fix login page")).findFirst().get();
+        utils.perform(put(utils.getBaseUrl() + TASK_CONTROLLER_PATH + ID, task.getId())
+                .content(TestUtils.asJson(new TaskDto("Fix logout button", null, taskStatusId, null, null)))
+                .contentType(APPLICATION_JSON), TEST_USERNAME).andExpect(status().isOk());
+        assertThat(searchTasks("?q=login")).isEmpty();
+        assertThat(searchTasks("?q=logout")).hasSize(1);
+        utils.perform(delete(utils.getBaseUrl() + TASK_CONTROLLER_PATH + ID, task.getId()), TEST_USERNAME)
+                .andExpect(status().isOk());
+        assertThat(searchTasks("?q=logout")).isEmpty();
+    }
+
+    @Test
+    void getTasksPageTest() throws Exception {
+        // first page
+        createDefaultTask();
+        createDefaultTask();
+        createDefaultTask();
+        final List<Long> expectedIds = taskRepository.findAll().stream().map(Task::getId).sorted().toList();
+        final MockHttpServletResponse firstResponse = utils
+                .perform(get(utils.getBaseUrl() + TASK_CONTROLLER_PATH + PAGE + "?limit=2"), TEST_USERNAME)
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse();
+        final TaskPageDto firstPage = fromJson(firstResponse.getContentAsString(), new TypeReference<>() {
+        });
+        assertThat(firstPage.content()).hasSize(2);
+        assertNotNull(firstPage.nextCursor());
+
+        // next page
+        final MockHttpServletResponse nextResponse = utils
+                .perform(get(utils.getBaseUrl() + TASK_CONTROLLER_PATH + PAGE + "?limit=2&cursor="
+                        + firstPage.nextCursor()), TEST_USERNAME)
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse();
+        final TaskPageDto nextPage = fromJson(nextResponse.getContentAsString(), new TypeReference<>() {
+        });
+        assertThat(nextPage.content()).hasSize(1);
+        assertNull(nextPage.nextCursor());
+        assertEquals(expectedIds, List.of(firstPage.content().get(0).getId(), firstPage.content().get(1).getId(),
+                nextPage.content().get(0).getId()));
+
+        // unprocessable entity
+        utils.perform(get(utils.getBaseUrl() + TASK_CONTROLLER_PATH + PAGE + "?cursor=error"), TEST_USERNAME)
+                .andExpect(status().isUnprocessableEntity());
+        utils.perform(get(utils.getBaseUrl() + TASK_CONTROLLER_PATH + PAGE + "?limit=0"), TEST_USERNAME)
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    void exportTasksTest() throws Exception {
+        // export all tasks line by line
+        createDefaultTask();
+        createDefaultTask();
+        final MvcResult result = utils
+                .perform(get(utils.getBaseUrl() + TASK_CONTROLLER_PATH + EXPORT), TEST_USERNAME)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        result.getAsyncResult();
+        final String[] lines = result.getResponse().getContentAsString().split("\n");
+        assertThat(lines).hasSize(2);
+        final Task task = fromJson(lines[0], new TypeReference<>() {
+        });
+        assertEquals("name", task.getName());
+        assertThat(task.getLabels()).hasSize(1);
+
+        // forbidden
+        utils.perform(get(utils.getBaseUrl() + TASK_CONTROLLER_PATH + EXPORT)).andExpect(status().isForbidden());
+    }
+
     @Test
     void getTaskByIdTest() throws Exception {
         // get task by id
@@ -209,6 +394,11 @@ class TaskControllerTest {
                 .content(asJson(taskDto))
                 .contentType(APPLICATION_JSON)).andExpect(status().isForbidden());
 
+        // not found
+        utils.perform(put(utils.getBaseUrl() + TASK_CONTROLLER_PATH + ID, taskId + 1)
+                .content(asJson(taskDto))
+                .contentType(APPLICATION_JSON), TEST_USERNAME).andExpect(status().isNotFound());
+
         // unprocessable entity
         final TaskDto taskDtoWithBadRequest = new TaskDto("", "", null, null, null);
         final MockHttpServletResponse responseWithBadRequest =
@@ -242,18 +432,331 @@ class TaskControllerTest {
                 .andExpect(status().isForbidden());
         assertEquals(1, taskRepository.count());
 
+        // forbidden for another user
+        final Long ownTaskId = taskRepository.findAll().get(0).getId();
+        utils.createUser(new UserDto("firstName", "lastName", TEST_USERNAME_2, "password"));
+        utils.perform(delete(utils.getBaseUrl() + TASK_CONTROLLER_PATH + ID, ownTaskId), TEST_USERNAME_2)
+                .andExpect(status().isForbidden());
+        assertEquals(1, taskRepository.count());
+
+        // not found
+        utils.perform(delete(utils.getBaseUrl() + TASK_CONTROLLER_PATH + ID, taskId), TEST_USERNAME)
+                .andExpect(status().isNotFound());
+        assertEquals(1, taskRepository.count());
+
         // unprocessable entity
         utils.perform(delete(utils.getBaseUrl() + TASK_CONTROLLER_PATH + ID, "id"), TEST_USERNAME)
                 .andExpect(status().isUnprocessableEntity());
         assertEquals(1, taskRepository.count());
     }
 
+    @Test
+    void batchTasksTest() throws Exception {
+        final Long executorId = userRepository.findAll().get(0).getId();
+        final Long taskStatusId = statusRepository.findAll().get(0).getId();
+        final Long labelId = labelRepository.findAll().get(0).getId();
+
+        // created
+        final List<TaskDto> taskDtos = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            taskDtos.add(new TaskDto("name" + i, "description", taskStatusId, List.of(labelId), executorId));
+        }
+        utils.perform(post(utils.getBaseUrl() + TASK_CONTROLLER_PATH + BATCH)
+                .content(asJson(new TaskBatchDto(taskDtos)))
+                .contentType(APPLICATION_JSON), TEST_USERNAME).andExpect(status().isCreated());
+        assertEquals(120, taskRepository.count());
+
+        // updated
+        final List<Long> ids = taskRepository.findAll().stream().map(Task::getId).limit(2).toList();
+        final List<TaskUpdateDto> updates = ids.stream()
+                .map(id -> new TaskUpdateDto(id, new TaskDto("new name", null, taskStatusId, null, null)))
+                .toList();
+        utils.perform(put(utils.getBaseUrl() + TASK_CONTROLLER_PATH + BATCH)
+                .content(asJson(new TaskBatchUpdateDto(updates)))
+                .contentType(APPLICATION_JSON), TEST_USERNAME).andExpect(status().isOk());
+        assertThat(taskRepository.findAllById(ids)).extracting(Task::getName).containsOnly("new name");
+
+        // updated by another user, as a single task can be, but only deleted by the author
+        utils.createUser(new UserDto("firstName", "lastName", TEST_USERNAME_2, "password"));
+        utils.perform(put(utils.getBaseUrl() + TASK_CONTROLLER_PATH + BATCH)
+                .content(asJson(new TaskBatchUpdateDto(updates)))
+                .contentType(APPLICATION_JSON), TEST_USERNAME_2).andExpect(status().isOk());
+        utils.perform(put(utils.getBaseUrl() + TASK_CONTROLLER_PATH + ID, ids.get(0))
+                .content(asJson(new TaskDto("new name", null, taskStatusId, null, null)))
+                .contentType(APPLICATION_JSON), TEST_USERNAME_2).andExpect(status().isOk());
+        utils.perform(delete(utils.getBaseUrl() + TASK_CONTROLLER_PATH + BATCH)
+                .param("ids", ids.get(0).toString()), TEST_USERNAME_2).andExpect(status().isForbidden());
+
+        // not found
+        utils.perform(post(utils.getBaseUrl() + TASK_CONTROLLER_PATH + BATCH)
+                .content(asJson(new TaskBatchDto(List.of(new TaskDto("name", null, taskStatusId + 1, null, null)))))
+                .contentType(APPLICATION_JSON), TEST_USERNAME).andExpect(status().isNotFound());
+
+        // unprocessable entity
+        utils.perform(post(utils.getBaseUrl() + TASK_CONTROLLER_PATH + BATCH)
+                .content(asJson(new TaskBatchDto(List.of(new TaskDto("", null, null, null, null)))))
+                .contentType(APPLICATION_JSON), TEST_USERNAME).andExpect(status().isUnprocessableEntity());
+        assertEquals(120, taskRepository.count());
+
+        // deleted
+        utils.perform(delete(utils.getBaseUrl() + TASK_CONTROLLER_PATH + BATCH)
+                .param("ids", ids.stream().map(String::valueOf).toArray(String[]::new)), TEST_USERNAME)
+                .andExpect(status().isOk());
+        assertEquals(118, taskRepository.count());
+    }
+
+    @Test
+    void getTasksChangedSinceTest() throws Exception {
+        createDefaultTask();
+        createDefaultTask();
+        final List<Task> tasks = taskRepository.findAll();
+        final TaskDeltaDto all = getTasksChangedSince("1970-01-01T00:00:00.000Z", "");
+        assertThat(all.tasks()).hasSize(2);
+        assertThat(all.deletedIds()).doesNotContainAnyElementsOf(tasks.stream().map(Task::getId).toList());
+        assertNotNull(all.watermark());
+
+        // only what changed since, a change of the labels alone counts as well
+        Thread.sleep(10);
+        final SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSXXX");
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        final String since = format.format(new Date());
+        utils.createLabel(new LabelDto("other label"));
+        final Task updated = tasks.get(0);
+        final Long otherLabelId = labelRepository.findAll().stream()
+                .filter(label -> label.getName().equals("other label")).findFirst().get().getId();
+        utils.perform(put(utils.getBaseUrl() + TASK_CONTROLLER_PATH + ID, updated.getId())
+                .content(asJson(new TaskDto(updated.getName(), updated.getDescription(),
+                        updated.getTaskStatus().getId(), List.of(otherLabelId), updated.getExecutor().getId())))
+                .contentType(APPLICATION_JSON), TEST_USERNAME).andExpect(status().isOk());
+        final Long deletedId = tasks.get(1).getId();
+        utils.perform(delete(utils.getBaseUrl() + TASK_CONTROLLER_PATH + ID, deletedId), TEST_USERNAME)
+                .andExpect(status().isOk());
+
+        final TaskDeltaDto delta = getTasksChangedSince(since, "");
+        assertThat(delta.tasks()).extracting(Task::getId).containsExactly(updated.getId());
+        assertThat(delta.tasks().get(0).getLabels()).extracting("name").containsExactly("other label");
+        assertEquals(List.of(deletedId), delta.deletedIds());
+        assertThat(delta.unmatchedIds()).isEmpty();
+
+        // the filters apply to the changed tasks, a changed task that doesn't match them is only listed by id
+        final Long taskStatusId = updated.getTaskStatus().getId();
+        final TaskDeltaDto filtered = getTasksChangedSince(since, "&taskStatus=" + (taskStatusId + 1));
+        assertThat(filtered.tasks()).isEmpty();
+        assertEquals(List.of(deletedId), filtered.deletedIds());
+        assertEquals(List.of(updated.getId()), filtered.unmatchedIds());
+
+        // unprocessable entity
+        utils.perform(get(utils.getBaseUrl() + TASK_CONTROLLER_PATH).param(UPDATED_SINCE, "yesterday"), TEST_USERNAME)
+                .andExpect(status().isUnprocessableEntity());
+
+        // forbidden
+        utils.perform(get(utils.getBaseUrl() + TASK_CONTROLLER_PATH).param(UPDATED_SINCE, since))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void createTasksBatchStatementCountTest() throws Exception {
+        final Long taskStatusId = statusRepository.findAll().get(0).getId();
+        final Long labelId = labelRepository.findAll().get(0).getId();
+        final List<TaskDto> taskDtos = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            taskDtos.add(new TaskDto("name" + i, "description", taskStatusId, List.of(labelId), null));
+        }
+
+        final Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        utils.perform(post(utils.getBaseUrl() + TASK_CONTROLLER_PATH + BATCH)
+                .content(asJson(new TaskBatchDto(taskDtos)))
+                .contentType(APPLICATION_JSON), TEST_USERNAME).andExpect(status().isCreated());
+
+        // 200 tasks and 200 label links are written in batches of 50, ids come from the sequence 50 at a time
+        assertEquals(200, taskRepository.count());
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(30);
+    }
+
+    @Test
+    void getTasksNotModifiedTest() throws Exception {
+        createDefaultTask();
+        final String eTag = getETag(TASK_CONTROLLER_PATH, null);
+        // the fingerprint only summarizes the tasks, so the collection ETag is weak
+        assertThat(eTag).startsWith("W/\"");
+
+        // answered from the fingerprint, without loading a task
+        final Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        utils.perform(get(utils.getBaseUrl() + TASK_CONTROLLER_PATH).header(IF_NONE_MATCH, eTag), TEST_USERNAME)
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(ETAG, eTag));
+        assertEquals(0, statistics.getEntityLoadCount());
+
+        // the status is written out with the task, so renaming it changes the tasks
+        final Long taskStatusId = statusRepository.findAll().get(0).getId();
+        utils.perform(put(utils.getBaseUrl() + STATUS_CONTROLLER_PATH + ID, taskStatusId)
+                .content(asJson(new StatusDto("renamed")))
+                .contentType(APPLICATION_JSON), TEST_USERNAME).andExpect(status().isOk());
+        final String newETag = getETag(TASK_CONTROLLER_PATH, eTag);
+        assertNotEquals(eTag, newETag);
+
+        // a single task
+        final Long taskId = taskRepository.findAll().get(0).getId();
+        final String taskETag = getETag(TASK_CONTROLLER_PATH + "/" + taskId, null);
+        assertThat(taskETag).startsWith("\"");
+        utils.perform(get(utils.getBaseUrl() + TASK_CONTROLLER_PATH + ID, taskId).header(IF_NONE_MATCH, taskETag),
+                TEST_USERNAME).andExpect(status().isNotModified());
+    }
+
+    @Test
+    void updateTaskIfMatchTest() throws Exception {
+        createDefaultTask();
+        final Task task = taskRepository.findAll().get(0);
+        final String eTag = getETag(TASK_CONTROLLER_PATH + "/" + task.getId(), null);
+        final TaskDto taskDto = new TaskDto("new name", "new description", task.getTaskStatus().getId(),
+                List.of(), null);
+
+        final String newETag = utils.perform(put(utils.getBaseUrl() + TASK_CONTROLLER_PATH + ID, task.getId())
+                        .header(IF_MATCH, eTag)
+                        .content(asJson(taskDto))
+                        .contentType(APPLICATION_JSON), TEST_USERNAME)
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(ETAG);
+        assertNotEquals(eTag, newETag);
+
+        // a stale ETag gets the current task back instead of overwriting it
+        final MockHttpServletResponse response = utils
+                .perform(put(utils.getBaseUrl() + TASK_CONTROLLER_PATH + ID, task.getId())
+                        .header(IF_MATCH, eTag)
+                        .content(asJson(new TaskDto("lost", "lost", task.getTaskStatus().getId(), List.of(), null)))
+                        .contentType(APPLICATION_JSON), TEST_USERNAME)
+                .andExpect(status().isConflict())
+                .andExpect(header().string(ETAG, newETag))
+                .andReturn()
+                .getResponse();
+        final Task current = fromJson(response.getContentAsString(), new TypeReference<>() {
+        });
+        assertEquals("new name", current.getName());
+        assertEquals("new name", taskRepository.findById(task.getId()).get().getName());
+    }
+
+    @Test
+    void updateTaskConcurrentlyTest() throws Exception {
+        createDefaultTask();
+        final Long taskId = taskRepository.findAll().get(0).getId();
+        final Long taskStatusId = statusRepository.findAll().get(0).getId();
+        final int threads = 4;
+        final int updatesPerThread = 5;
+
+        // every editor retries on conflict with the state it got back, so no update may get lost
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        final List<Future<?>> editors = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            final int editor = i;
+            editors.add(executor.submit(() -> {
+                String eTag = getETag(TASK_CONTROLLER_PATH + "/" + taskId, null);
+                for (int update = 0; update < updatesPerThread;) {
+                    final MockHttpServletResponse response = utils
+                            .perform(put(utils.getBaseUrl() + TASK_CONTROLLER_PATH + ID, taskId)
+                                    .header(IF_MATCH, eTag)
+                                    .content(asJson(new TaskDto("editor " + editor + " update " + update,
+                                            "description", taskStatusId, List.of(), null)))
+                                    .contentType(APPLICATION_JSON), TEST_USERNAME)
+                            .andReturn()
+                            .getResponse();
+                    assertThat(response.getStatus()).isIn(200, 409);
+                    if (response.getStatus() == 200) {
+                        update++;
+                    }
+                    eTag = response.getHeader(ETAG);
+                }
+                return null;
+            }));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+
+        for (Future<?> future : editors) {
+            future.get();
+        }
+        assertEquals(threads * updatesPerThread, taskRepository.findById(taskId).get().getVersion());
+    }
+
+    @SuppressWarnings("unchecked")
+    private CacheStats usersByEmailStats() {
+        return ((Cache<Object, Object>) cacheManager.getCache(USERS_BY_EMAIL).getNativeCache()).stats();
+    }
+
+    private String getETag(final String path, final String ifNoneMatch) throws Exception {
+        final MockHttpServletRequestBuilder request = get(utils.getBaseUrl() + path);
+        if (ifNoneMatch != null) {
+            request.header(IF_NONE_MATCH, ifNoneMatch);
+        }
+        return utils.perform(request, TEST_USERNAME)
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(ETAG);
+    }
+
+    private TaskDeltaDto getTasksChangedSince(final String since, final String filter) throws Exception {
+        final MockHttpServletResponse response = utils
+                .perform(get(utils.getBaseUrl() + TASK_CONTROLLER_PATH + "?" + UPDATED_SINCE + "={since}" + filter,
+                        since), TEST_USERNAME)
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse();
+        return fromJson(response.getContentAsString(), new TypeReference<>() {
+        });
+    }
+
+    private List<Task> searchTasks(final String query) throws Exception {
+        final MockHttpServletResponse response = utils
+                .perform(get(utils.getBaseUrl() + TASK_CONTROLLER_PATH + query), TEST_USERNAME)
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse();
+        return fromJson(response.getContentAsString(), new TypeReference<>() {
+        });
+    }
+
+    private long countStatementsOfGetAllTasks(final int expectedSize) throws Exception {
+        final Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        final MockHttpServletResponse response = utils
+                .perform(get(utils.getBaseUrl() + TASK_CONTROLLER_PATH), TEST_USERNAME)
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse();
+        final List<Task> tasks = fromJson(response.getContentAsString(), new TypeReference<>() {
+        });
+        assertThat(tasks).hasSize(expectedSize);
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void createTaskWithOwnRelations(final int number) throws Exception {
+        final String email = "executor" + number + "@email.com";
+        utils.createUser(new UserDto("firstName", "lastName", email, "password"));
+        utils.createStatus(new StatusDto("status" + number));
+        utils.createLabel(new LabelDto("label" + number));
+        final Long executorId = userRepository.findByEmail(email).get().getId();
+        final Long taskStatusId = statusRepository.findAll().stream()
+                .filter(status -> status.getName().equals("status" + number)).findFirst().get().getId();
+        final Long labelId = labelRepository.findAll().stream()
+                .filter(label -> label.getName().equals("label" + number)).findFirst().get().getId();
+        createTask(new TaskDto("name" + number, "description", taskStatusId, List.of(labelId), executorId))
+                .andExpect(status().isCreated());
+    }
+
     private ResultActions createDefaultTask() throws Exception {
         final Long executorId = userRepository.findAll().get(0).getId();
         final Long taskStatusId = statusRepository.findAll().get(0).getId();
         final Long labelId = labelRepository.findAll().get(0).getId();
         final TaskDto taskDto = new TaskDto("name", "description", taskStatusId,
                 List.of(labelId), executorId);
+        return createTask(taskDto);
+    }
+
+    private ResultActions createTask(final TaskDto taskDto) throws Exception {
         final MockHttpServletRequestBuilder request = post(utils.getBaseUrl() + TASK_CONTROLLER_PATH)
                 .content(TestUtils.asJson(taskDto))
                 .contentType(APPLICATION_JSON);
@@ -0,0 +1,204 @@
+package hexlet.code.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import hexlet.code.config.TestConfig;
+import hexlet.code.dto.TaskDto;
+import hexlet.code.model.Task;
+import hexlet.code.repository.LabelRepository;
+import hexlet.code.repository.StatusRepository;
+import hexlet.code.repository.TaskRepository;
+import hexlet.code.repository.UserRepository;
+import hexlet.code.utils.TestUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.List;
+
+import static hexlet.code.config.TestConfig.TEST_PROFILE;
+import static hexlet.code.controller.TaskController.EXPORT;
+import static hexlet.code.controller.TaskController.ID;
+import static hexlet.code.controller.TaskController.TASK_CONTROLLER_PATH;
+import static hexlet.code.controller.TaskReactiveController.REACTIVE_TASK_CONTROLLER_PATH;
+import static hexlet.code.utils.TestUtils.TEST_USERNAME;
+import static hexlet.code.utils.TestUtils.fromJson;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+import static org.springframework.http.HttpHeaders.ETAG;
+import static org.springframework.http.HttpHeaders.IF_NONE_MATCH;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+@ActiveProfiles(TEST_PROFILE)
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(webEnvironment = RANDOM_PORT, classes = TestConfig.class)
+class TaskReactiveControllerTest {
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private StatusRepository statusRepository;
+
+    @Autowired
+    private LabelRepository labelRepository;
+
+    @Autowired
+    private TestUtils utils;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    public void init() throws Exception {
+        utils.createDefaultUser();
+        utils.createDefaultStatus();
+        utils.createDefaultLabel();
+    }
+
+    @AfterEach
+    public void clear() {
+        taskRepository.deleteAll();
+        utils.tearDown();
+    }
+
+    @Test
+    void getAllTasksTest() throws Exception {
+        // the same tasks and ETag as the blocking endpoint
+        createDefaultTask();
+        createDefaultTask();
+        final MockHttpServletResponse expected = utils
+                .perform(get(utils.getBaseUrl() + TASK_CONTROLLER_PATH), TEST_USERNAME)
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse();
+        final MockHttpServletResponse response = performAsync(
+                get(utils.getBaseUrl() + REACTIVE_TASK_CONTROLLER_PATH));
+        final List<JsonNode> tasks = fromJson(response.getContentAsString(), new TypeReference<>() {
+        });
+        assertEquals(fromJson(expected.getContentAsString(), new TypeReference<List<JsonNode>>() {
+        }), tasks);
+        assertEquals(expected.getHeader(ETAG), response.getHeader(ETAG));
+
+        // not modified
+        final MvcResult notModified = utils.perform(get(utils.getBaseUrl() + REACTIVE_TASK_CONTROLLER_PATH)
+                        .header(IF_NONE_MATCH, response.getHeader(ETAG)), TEST_USERNAME)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(notModified)).andExpect(status().isNotModified());
+
+        // get all with filter
+        final Long authorId = userRepository.findByEmail(TEST_USERNAME).get().getId();
+        final Long executorId = userRepository.findAll().get(0).getId();
+        final Long taskStatusId = statusRepository.findAll().get(0).getId();
+        final Long labelId = labelRepository.findAll().get(0).getId();
+        final String filter = String.format("?authorId=%d&taskStatus=%d&executorId=%d&labelsId=%d",
+                authorId, taskStatusId, executorId, labelId);
+        final MockHttpServletResponse responseWithFilter = performAsync(
+                get(utils.getBaseUrl() + REACTIVE_TASK_CONTROLLER_PATH + filter));
+        assertThat(fromJson(responseWithFilter.getContentAsString(), new TypeReference<List<Task>>() {
+        })).hasSize(2);
+        // the fingerprint is filtered like the tasks
+        assertEquals(utils.perform(get(utils.getBaseUrl() + TASK_CONTROLLER_PATH + filter), TEST_USERNAME)
+                .andReturn().getResponse().getHeader(ETAG), responseWithFilter.getHeader(ETAG));
+
+        final MockHttpServletResponse responseWithOtherStatus = performAsync(
+                get(utils.getBaseUrl() + REACTIVE_TASK_CONTROLLER_PATH + "?taskStatus=" + (taskStatusId + 1)));
+        assertThat(fromJson(responseWithOtherStatus.getContentAsString(), new TypeReference<List<Task>>() {
+        })).isEmpty();
+        assertNotEquals(response.getHeader(ETAG), responseWithOtherStatus.getHeader(ETAG));
+
+        // forbidden
+        utils.perform(get(utils.getBaseUrl() + REACTIVE_TASK_CONTROLLER_PATH)).andExpect(status().isForbidden());
+    }
+
+    @Test
+    void exportTasksTest() throws Exception {
+        // one task per line
+        createDefaultTask();
+        createDefaultTask();
+        final MockHttpServletResponse response = performAsync(
+                get(utils.getBaseUrl() + REACTIVE_TASK_CONTROLLER_PATH + EXPORT));
+        final String[] lines = response.getContentAsString().split("\n");
+        assertThat(lines).hasSize(2);
+        final Task task = fromJson(lines[0], new TypeReference<>() {
+        });
+        assertEquals("name", task.getName());
+        assertThat(task.getLabels()).hasSize(1);
+    }
+
+    @Test
+    void getTaskByIdTest() throws Exception {
+        // the same task and ETag as the blocking endpoint
+        createDefaultTask();
+        final Task expectedTask = taskRepository.findAll().get(0);
+        final MockHttpServletResponse expected = utils.perform(
+                        get(utils.getBaseUrl() + TASK_CONTROLLER_PATH + ID, expectedTask.getId()), TEST_USERNAME)
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse();
+        final MockHttpServletResponse response = performAsync(
+                get(utils.getBaseUrl() + REACTIVE_TASK_CONTROLLER_PATH + ID, expectedTask.getId()));
+        assertEquals(fromJson(expected.getContentAsString(), new TypeReference<JsonNode>() {
+        }), fromJson(response.getContentAsString(), new TypeReference<JsonNode>() {
+        }));
+        assertEquals(expected.getHeader(ETAG), response.getHeader(ETAG));
+
+        // not found
+        final MvcResult notFound = utils.perform(
+                        get(utils.getBaseUrl() + REACTIVE_TASK_CONTROLLER_PATH + ID, 100), TEST_USERNAME)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(notFound)).andExpect(status().isNotFound());
+
+        // forbidden
+        utils.perform(get(utils.getBaseUrl() + REACTIVE_TASK_CONTROLLER_PATH + ID, expectedTask.getId()))
+                .andExpect(status().isForbidden());
+    }
+
+    private MockHttpServletResponse performAsync(final MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult result = utils.perform(request, TEST_USERNAME)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        // a response entity with a Flux body goes async once more to write it
+        do {
+            result = mockMvc.perform(asyncDispatch(result)).andReturn();
+        } while (result.getRequest().isAsyncStarted());
+        assertEquals(HttpStatus.OK.value(), result.getResponse().getStatus());
+        return result.getResponse();
+    }
+
+    private ResultActions createDefaultTask() throws Exception {
+        final Long executorId = userRepository.findAll().get(0).getId();
+        final Long taskStatusId = statusRepository.findAll().get(0).getId();
+        final Long labelId = labelRepository.findAll().get(0).getId();
+        final TaskDto taskDto = new TaskDto("name", "description", taskStatusId, List.of(labelId), executorId);
+        return utils.perform(post(utils.getBaseUrl() + TASK_CONTROLLER_PATH)
+                .content(TestUtils.asJson(taskDto))
+                .contentType(APPLICATION_JSON), TEST_USERNAME);
+    }
+
+}
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import hexlet.code.config.TestConfig;
 import hexlet.code.dto.LoginDto;
 import hexlet.code.dto.UserDto;
+import hexlet.code.dto.UserPatchDto;
 import hexlet.code.model.User;
 import hexlet.code.repository.UserRepository;
 import hexlet.code.utils.TestUtils;
@@ -13,13 +14,16 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
 import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 
 import java.util.List;
 
+import static hexlet.code.config.CacheConfig.USERS_BY_EMAIL;
 import static hexlet.code.config.TestConfig.TEST_PROFILE;
 import static hexlet.code.config.security.SecurityConfig.LOGIN;
 import static hexlet.code.controller.UserController.ID;
@@ -34,11 +38,14 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+import static org.springframework.http.HttpHeaders.RETRY_AFTER;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @AutoConfigureMockMvc
@@ -53,6 +60,9 @@ class UserControllerTest {
     @Autowired
     private TestUtils utils;
 
+    @Autowired
+    private CacheManager cacheManager;
+
     @AfterEach
     public void clear() {
         utils.tearDown();
@@ -145,6 +155,43 @@ class UserControllerTest {
         assertTrue(userRepository.existsById(userId));
         assertNull(userRepository.findByEmail(TEST_USERNAME).orElse(null));
         assertNotNull(userRepository.findByEmail(TEST_USERNAME_2).orElse(null));
+        // the credentials cached by the login of the request are gone with the commit
+        assertNull(userRepository.findCredentialsByEmail(TEST_USERNAME).orElse(null));
+    }
+
+    @Test
+    void patchUserTest() throws Exception {
+        utils.createDefaultUser();
+        final User user = userRepository.findByEmail(TEST_USERNAME).get();
+
+        // the password hash is kept when no password is given
+        utils.perform(patch(utils.getBaseUrl() + USER_CONTROLLER_PATH + ID, user.getId())
+                .content(asJson(new UserPatchDto("new first name", null, null, null)))
+                .contentType(APPLICATION_JSON), TEST_USERNAME).andExpect(status().isOk());
+        final User patchedUser = userRepository.findById(user.getId()).get();
+        assertEquals("new first name", patchedUser.getFirstName());
+        assertEquals(user.getLastName(), patchedUser.getLastName());
+        assertEquals(user.getPassword(), patchedUser.getPassword());
+
+        // a new password is hashed
+        utils.perform(patch(utils.getBaseUrl() + USER_CONTROLLER_PATH + ID, user.getId())
+                .content(asJson(new UserPatchDto(null, null, null, "new password")))
+                .contentType(APPLICATION_JSON), TEST_USERNAME).andExpect(status().isOk());
+        utils.perform(post(utils.getBaseUrl() + LOGIN)
+                .content(asJson(new LoginDto(TEST_USERNAME, "new password")))
+                .contentType(APPLICATION_JSON)).andExpect(status().isOk());
+
+        // validated like a full update
+        utils.perform(patch(utils.getBaseUrl() + USER_CONTROLLER_PATH + ID, user.getId())
+                .content(asJson(new UserPatchDto(null, null, "email", null)))
+                .contentType(APPLICATION_JSON), TEST_USERNAME).andExpect(status().isUnprocessableEntity());
+        utils.perform(patch(utils.getBaseUrl() + USER_CONTROLLER_PATH + ID, user.getId())
+                .content(asJson(new UserPatchDto(null, null, "", null)))
+                .contentType(APPLICATION_JSON), TEST_USERNAME).andExpect(status().isUnprocessableEntity());
+        utils.perform(patch(utils.getBaseUrl() + USER_CONTROLLER_PATH + ID, user.getId())
+                .content(asJson(new UserPatchDto("  ", null, null, null)))
+                .contentType(APPLICATION_JSON), TEST_USERNAME).andExpect(status().isUnprocessableEntity());
+        assertEquals("new first name", userRepository.findById(user.getId()).get().getFirstName());
     }
 
     @Test
@@ -167,6 +214,11 @@ class UserControllerTest {
         utils.perform(put(utils.getBaseUrl() + USER_CONTROLLER_PATH + ID, userId)
                 .content(asJson(userDto))
                 .contentType(APPLICATION_JSON)).andExpect(status().isForbidden());
+
+        // not found
+        utils.perform(put(utils.getBaseUrl() + USER_CONTROLLER_PATH + ID, forbiddenUserId + 1)
+                .content(asJson(userDto))
+                .contentType(APPLICATION_JSON), TEST_USERNAME).andExpect(status().isNotFound());
     }
 
     @Test
@@ -214,6 +266,11 @@ class UserControllerTest {
                 .andExpect(status().isForbidden());
         assertEquals(1, userRepository.count());
 
+        // not found
+        utils.perform(delete(utils.getBaseUrl() + USER_CONTROLLER_PATH + ID, userId), TEST_USERNAME)
+                .andExpect(status().isNotFound());
+        assertEquals(1, userRepository.count());
+
         // unprocessable entity
         utils.perform(delete(utils.getBaseUrl() + USER_CONTROLLER_PATH + ID,
                         "id"), TEST_USERNAME)
@@ -244,4 +301,43 @@ class UserControllerTest {
         utils.perform(loginRequestUnauthorized).andExpect(status().isUnauthorized());
     }
 
+    @Test
+    void upgradePasswordEncodingOnLoginTest() throws Exception {
+        utils.createDefaultUser();
+        final String password = utils.getTestRegistrationDto().password();
+        final Long userId = userRepository.findByEmail(TEST_USERNAME).get().getId();
+        // stored before the algorithm prefix and with a lower strength
+        final User user = userRepository.findById(userId).get();
+        user.setPassword(new BCryptPasswordEncoder(4).encode(password));
+        userRepository.save(user);
+        cacheManager.getCache(USERS_BY_EMAIL).clear();
+
+        utils.perform(post(utils.getBaseUrl() + LOGIN)
+                .content(asJson(new LoginDto(TEST_USERNAME, password)))
+                .contentType(APPLICATION_JSON)).andExpect(status().isOk());
+
+        assertThat(userRepository.findById(userId).get().getPassword()).startsWith("{bcrypt}$2a$10$");
+    }
+
+    @Test
+    void loginThrottleTest() throws Exception {
+        final MockHttpServletRequestBuilder loginRequest = post(utils.getBaseUrl() + LOGIN)
+                .content(asJson(new LoginDto("throttled@example.com", "wrong password")))
+                .contentType(APPLICATION_JSON);
+        for (int i = 0; i < 5; i++) {
+            utils.perform(loginRequest).andExpect(status().isUnauthorized());
+        }
+
+        // rejected without checking the password
+        utils.perform(loginRequest)
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(RETRY_AFTER));
+
+        // the failures do not lock the user out from another address
+        utils.perform(loginRequest.with(request -> {
+            request.setRemoteAddr("192.0.2.1");
+            return request;
+        })).andExpect(status().isUnauthorized());
+    }
+
 }
@@ -0,0 +1,133 @@
+package hexlet.code.loadtest;
+
+import hexlet.code.AppApplication;
+import hexlet.code.dto.TaskDto;
+import hexlet.code.model.Label;
+import hexlet.code.model.Status;
+import hexlet.code.model.User;
+import hexlet.code.service.LabelService;
+import hexlet.code.service.StatusService;
+import hexlet.code.service.TaskService;
+import hexlet.code.service.UserService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static hexlet.code.config.security.SecurityConfig.DEFAULT_AUTHORITIES;
+import static hexlet.code.utils.TestUtils.TEST_PASSWORD;
+import static hexlet.code.utils.TestUtils.labelDto;
+import static hexlet.code.utils.TestUtils.statusDto;
+import static hexlet.code.utils.TestUtils.taskDto;
+import static hexlet.code.utils.TestUtils.userDto;
+
+/**
+ * Starts the application and fills its database with a reproducible synthetic dataset for the {@link LoadDriver},
+ * e.g. {@code APP_ENV=dev ./gradlew seedServer}. The same random seed always gives the same data.
+ * The rows are created through the services from the DTOs of {@code TestUtils}, so they are valid like any other.
+ * Users are {@code user<n>@example.com} with the password {@link #PASSWORD}.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class DatasetGenerator implements ApplicationRunner {
+
+    public static final String PASSWORD = TEST_PASSWORD;
+    public static final String EMAIL_FORMAT = "user%d@example.com";
+
+    private static final int CHUNK_SIZE = 500;
+
+    private final UserService userService;
+    private final StatusService statusService;
+    private final LabelService labelService;
+    private final TaskService taskService;
+
+    @Value("${seed.users:100}")
+    private int users;
+
+    @Value("${seed.statuses:5}")
+    private int statuses;
+
+    @Value("${seed.labels:30}")
+    private int labels;
+
+    @Value("${seed.tasks:10000}")
+    private int tasks;
+
+    @Value("${seed.max-labels-per-task:5}")
+    private int maxLabelsPerTask;
+
+    @Value("${seed.random-seed:42}")
+    private long randomSeed;
+
+    public static void main(final String[] args) {
+        new SpringApplicationBuilder(AppApplication.class, DatasetGenerator.class).run(args);
+    }
+
+    @Override
+    public void run(final ApplicationArguments args) {
+        final Random random = new Random(randomSeed);
+
+        final List<User> savedUsers = IntStream.range(0, users)
+                .mapToObj(i -> userService.createUser(userDto(String.format(EMAIL_FORMAT, i))))
+                .toList();
+        final List<Long> statusIds = IntStream.range(0, statuses)
+                .mapToObj(i -> statusService.createStatus(statusDto("status" + i)))
+                .map(Status::getId)
+                .toList();
+        final List<Long> labelIds = IntStream.range(0, labels)
+                .mapToObj(i -> labelService.createLabel(labelDto("label" + i)))
+                .map(Label::getId)
+                .toList();
+
+        // the author of a task is the user creating it, so the tasks are created per author
+        final Map<User, List<TaskDto>> tasksByAuthor = new LinkedHashMap<>();
+        for (int i = 0; i < tasks; i++) {
+            final User author = savedUsers.get(random.nextInt(savedUsers.size()));
+            final Long executorId = random.nextInt(4) == 0
+                    ? null
+                    : savedUsers.get(random.nextInt(savedUsers.size())).getId();
+            tasksByAuthor.computeIfAbsent(author, key -> new ArrayList<>()).add(taskDto("Task " + i,
+                    statusIds.get(random.nextInt(statusIds.size())), randomLabels(random, labelIds), executorId));
+        }
+        try {
+            tasksByAuthor.forEach((author, taskDtos) -> {
+                SecurityContextHolder.getContext().setAuthentication(
+                        new UsernamePasswordAuthenticationToken(author.getEmail(), null, DEFAULT_AUTHORITIES));
+                for (int from = 0; from < taskDtos.size(); from += CHUNK_SIZE) {
+                    taskService.createTasks(taskDtos.subList(from, Math.min(from + CHUNK_SIZE, taskDtos.size())));
+                }
+            });
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+
+        log.info("Generated {} users, {} statuses, {} labels and {} tasks", users, statuses, labels, tasks);
+    }
+
+    // few labels per task and a handful of popular labels, like in real trackers
+    private List<Long> randomLabels(final Random random, final List<Long> all) {
+        if (all.isEmpty()) {
+            return List.of();
+        }
+        final int count = (int) Math.floor(Math.pow(random.nextDouble(), 2) * (maxLabelsPerTask + 1));
+        final Set<Long> result = new LinkedHashSet<>();
+        for (int i = 0; i < count; i++) {
+            result.add(all.get((int) (Math.pow(random.nextDouble(), 3) * all.size())));
+        }
+        return new ArrayList<>(result);
+    }
+
+}
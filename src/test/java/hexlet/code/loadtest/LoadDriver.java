@@ -0,0 +1,257 @@
+package hexlet.code.loadtest;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import hexlet.code.dto.LoginDto;
+import hexlet.code.dto.TaskDto;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static hexlet.code.loadtest.DatasetGenerator.EMAIL_FORMAT;
+import static hexlet.code.loadtest.DatasetGenerator.PASSWORD;
+import static hexlet.code.utils.TestUtils.asJson;
+import static hexlet.code.utils.TestUtils.fromJson;
+
+/**
+ * Replays a mix of login, list, filter, create and update calls against a running server with a dataset from
+ * {@code DatasetGenerator}, then prints p50, p99 and throughput per endpoint. Run with {@code ./gradlew loadTest},
+ * settings come from the {@code load.*} system properties.
+ * With {@code load.login-storm-concurrency} set, extra clients do nothing but log in at the same time, to compare the
+ * latency of the task calls with and without the storm. Start the server with a high
+ * {@code login.throttle.max-attempts-per-address} to load the hashing pool rather than the throttle.
+ * With {@code load.concurrency-steps}, e.g. {@code 50,200,1000,4000}, the mix is replayed once per level of
+ * concurrency and the highest level whose p99 stays under {@code load.max-p99-ms} without errors is printed as the
+ * sustainable one. Run it against a server started with and without {@code spring.threads.virtual.enabled=true}
+ * (on Java 21) to compare the thread pool with virtual threads.
+ * {@code load.read-path=/reactive/tasks} sends the filtered reads to the R2DBC endpoint instead of the blocking one.
+ */
+public final class LoadDriver {
+
+    private static final String BASE_URL = System.getProperty("load.base-url", "http://localhost:8080/api");
+    private static final int USERS = Integer.getInteger("load.users", 100);
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 50);
+    private static final int DURATION_SEC = Integer.getInteger("load.duration-sec", 60);
+    private static final long RANDOM_SEED = Long.getLong("load.random-seed", 42);
+    private static final int LOGIN_STORM_CONCURRENCY = Integer.getInteger("load.login-storm-concurrency", 0);
+    private static final String CONCURRENCY_STEPS = System.getProperty("load.concurrency-steps", "");
+    private static final long MAX_P99_MS = Long.getLong("load.max-p99-ms", 1000);
+    private static final String READ_PATH = System.getProperty("load.read-path", "/tasks");
+
+    // weights of the calls in the mix
+    private static final Map<String, Integer> MIX = Map.of(
+            "login", 5,
+            "list", 30,
+            "filter", 30,
+            "create", 20,
+            "update", 15);
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+    private final Map<String, List<Long>> latencies = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> errors = new ConcurrentHashMap<>();
+    private List<Long> statusIds;
+    private List<Long> userIds;
+
+    public static void main(final String[] args) throws Exception {
+        new LoadDriver().run();
+    }
+
+    private void run() throws Exception {
+        final String token = login(String.format(EMAIL_FORMAT, 0));
+        statusIds = ids(send("setup", "GET", "/statuses", token, null).body());
+        userIds = ids(send("setup", "GET", "/users", token, null).body());
+
+        if (CONCURRENCY_STEPS.isBlank()) {
+            report(replay(CONCURRENCY));
+            return;
+        }
+
+        int sustainable = 0;
+        for (String step : CONCURRENCY_STEPS.split(",")) {
+            final int concurrency = Integer.parseInt(step.trim());
+            System.out.printf("concurrency: %d%n", concurrency);
+            report(replay(concurrency));
+            final long errorCount = errors.values().stream().mapToLong(AtomicLong::get).sum();
+            final double p99 = latencies.values().stream()
+                    .mapToDouble(values -> percentile(values.stream().sorted().toList(), 0.99))
+                    .max()
+                    .orElse(0);
+            if (errorCount > 0 || p99 > MAX_P99_MS) {
+                break;
+            }
+            sustainable = concurrency;
+        }
+        System.out.printf("max sustainable concurrency: %d (p99 under %d ms, no errors)%n", sustainable, MAX_P99_MS);
+    }
+
+    // runs the mix with the given number of clients and returns the elapsed time
+    private long replay(final int concurrency) throws InterruptedException {
+        latencies.clear();
+        errors.clear();
+
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(DURATION_SEC);
+        final long startedAt = System.nanoTime();
+        final ExecutorService executor = newExecutor(concurrency + LOGIN_STORM_CONCURRENCY);
+        for (int i = 0; i < concurrency; i++) {
+            final Random random = new Random(RANDOM_SEED + i);
+            executor.submit(() -> virtualUser(random, deadline));
+        }
+        for (int i = 0; i < LOGIN_STORM_CONCURRENCY; i++) {
+            final Random random = new Random(RANDOM_SEED - i - 1);
+            executor.submit(() -> loginStorm(random, deadline));
+        }
+        executor.shutdown();
+        executor.awaitTermination(DURATION_SEC + 60, TimeUnit.SECONDS);
+        return System.nanoTime() - startedAt;
+    }
+
+    private void virtualUser(final Random random, final long deadline) {
+        final String email = String.format(EMAIL_FORMAT, random.nextInt(USERS));
+        final List<Long> ownTaskIds = new ArrayList<>();
+        String token = login(email);
+        while (System.nanoTime() < deadline) {
+            try {
+                switch (pick(random)) {
+                    case "login" -> {
+                        token = login(email);
+                    }
+                    case "list" -> send("list", "GET", "/tasks/page?limit=50", token, null);
+                    case "filter" -> send("filter", "GET", String.format("%s?taskStatus=%d&executorId=%d",
+                            READ_PATH, randomOf(random, statusIds), randomOf(random, userIds)), token, null);
+                    case "create" -> {
+                        final HttpResponse<String> response = send("create", "POST", "/tasks", token,
+                                asJson(randomTask(random)));
+                        if (response.statusCode() == 201) {
+                            ownTaskIds.add(fromJson(response.body(), new TypeReference<JsonNode>() {
+                            }).get("id").asLong());
+                        }
+                    }
+                    default -> {
+                        if (!ownTaskIds.isEmpty()) {
+                            send("update", "PUT", "/tasks/" + randomOf(random, ownTaskIds), token,
+                                    asJson(randomTask(random)));
+                        }
+                    }
+                }
+            } catch (Exception e) {
+                error("request");
+            }
+        }
+    }
+
+    private void loginStorm(final Random random, final long deadline) {
+        while (System.nanoTime() < deadline) {
+            try {
+                send("storm", "POST", "/login", null,
+                        asJson(new LoginDto(String.format(EMAIL_FORMAT, random.nextInt(USERS)), PASSWORD)));
+            } catch (Exception e) {
+                error("storm");
+            }
+        }
+    }
+
+    private String login(final String email) {
+        try {
+            return send("login", "POST", "/login", null, asJson(new LoginDto(email, PASSWORD))).body().trim();
+        } catch (Exception e) {
+            error("login");
+            return "";
+        }
+    }
+
+    private HttpResponse<String> send(final String name, final String method, final String path, final String token,
+                                      final String body) throws Exception {
+        final HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(BASE_URL + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .method(method, body == null
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(body));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+
+        final long start = System.nanoTime();
+        final HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        latencies.computeIfAbsent(name, key -> Collections.synchronizedList(new ArrayList<>()))
+                .add(System.nanoTime() - start);
+        if (response.statusCode() >= 400) {
+            error(name);
+        }
+        return response;
+    }
+
+    private TaskDto randomTask(final Random random) {
+        return new TaskDto("Load test task " + random.nextInt(), "Created by the load driver",
+                randomOf(random, statusIds), null, randomOf(random, userIds));
+    }
+
+    private void report(final long elapsedNanos) {
+        final double elapsedSec = elapsedNanos / 1e9;
+        System.out.printf("%-8s %10s %10s %10s %12s %8s%n", "endpoint", "requests", "p50 ms", "p99 ms", "req/s",
+                "errors");
+        new TreeMap<>(latencies).forEach((name, values) -> {
+            final List<Long> sorted = new ArrayList<>(values);
+            Collections.sort(sorted);
+            System.out.printf("%-8s %10d %10.2f %10.2f %12.1f %8d%n", name, sorted.size(),
+                    percentile(sorted, 0.50), percentile(sorted, 0.99), sorted.size() / elapsedSec,
+                    errors.getOrDefault(name, new AtomicLong()).get());
+        });
+        System.out.printf("errors: %d, elapsed: %.1f s%n",
+                errors.values().stream().mapToLong(AtomicLong::get).sum(), elapsedSec);
+    }
+
+    private void error(final String name) {
+        errors.computeIfAbsent(name, key -> new AtomicLong()).incrementAndGet();
+    }
+
+    private static double percentile(final List<Long> sorted, final double percentile) {
+        final int index = (int) Math.ceil(percentile * sorted.size()) - 1;
+        return sorted.get(Math.max(index, 0)) / 1e6;
+    }
+
+    private static String pick(final Random random) {
+        int value = random.nextInt(MIX.values().stream().mapToInt(Integer::intValue).sum());
+        for (Map.Entry<String, Integer> entry : new TreeMap<>(MIX).entrySet()) {
+            value -= entry.getValue();
+            if (value < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    private static <T> T randomOf(final Random random, final List<T> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    private static List<Long> ids(final String json) throws Exception {
+        final List<JsonNode> nodes = fromJson(json, new TypeReference<>() {
+        });
+        return nodes.stream().map(node -> node.get("id").asLong()).toList();
+    }
+
+    // virtual threads when running on Java 21+, the project itself targets 17
+    private static ExecutorService newExecutor(final int threads) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(threads);
+        }
+    }
+
+}
@@ -0,0 +1,134 @@
+package hexlet.code.repository;
+
+import com.querydsl.core.types.Predicate;
+import hexlet.code.config.TestConfig;
+import hexlet.code.model.QTask;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static hexlet.code.config.TestConfig.TEST_PROFILE;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that the filters of GET /api/tasks are served by indexes.
+ * The repository methods behind the endpoint are run and the SQL that Hibernate generates for them is explained.
+ * The Postgres part runs against an already migrated database given by JDBC_DATABASE_URL.
+ */
+@ActiveProfiles(TEST_PROFILE)
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = TestConfig.class,
+        properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "hexlet.code.repository.TaskQueryPlanTest$SqlCapture")
+class TaskQueryPlanTest {
+
+    private static final Timestamp SOME_TIME = Timestamp.valueOf("2023-01-01 00:00:00");
+    private static final int PAGE_SIZE = 50;
+
+    // filter -> the first statement its query issued
+    private static final Map<String, String> QUERIES = new LinkedHashMap<>();
+
+    @BeforeAll
+    static void captureQueries(@Autowired final TaskRepository taskRepository) {
+        final QTask task = QTask.task;
+        final Map<String, Predicate> filters = new LinkedHashMap<>();
+        filters.put("author", task.author.id.eq(1L));
+        filters.put("executor", task.executor.id.eq(1L));
+        filters.put("status", task.taskStatus.id.eq(1L));
+        filters.put("status and executor", task.taskStatus.id.eq(1L).and(task.executor.id.eq(1L)));
+        filters.put("status and label", task.taskStatus.id.eq(1L).and(task.labels.any().id.eq(1L)));
+        filters.put("updated since", task.updatedAt.goe(SOME_TIME));
+        filters.forEach((filter, predicate) -> capture(filter, taskRepository::findAll, predicate));
+        capture("keyset page", predicate -> taskRepository.findFirstOrderedByCreation(predicate, PAGE_SIZE),
+                task.createdAt.goe(SOME_TIME).and(task.createdAt.gt(SOME_TIME).or(task.id.gt(1L))));
+    }
+
+    @Test
+    void h2FiltersUseIndexesTest(@Autowired final DataSource dataSource) throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            for (Map.Entry<String, String> query : QUERIES.entrySet()) {
+                assertThat(explain(connection, query.getValue()))
+                        .as(query.getKey())
+                        .noneMatch(line -> line.contains("tableScan"));
+            }
+        }
+    }
+
+    @Test
+    @EnabledIfEnvironmentVariable(named = "JDBC_DATABASE_URL", matches = "jdbc:postgresql:.*")
+    void postgresFiltersUseIndexesTest() throws Exception {
+        try (Connection connection = DriverManager.getConnection(System.getenv("JDBC_DATABASE_URL"),
+                System.getenv("JDBC_DATABASE_USERNAME"), System.getenv("JDBC_DATABASE_PASSWORD"))) {
+            // small tables are always cheaper to scan, so ask whether an index could be used at all
+            connection.createStatement().execute("set enable_seqscan = off");
+            for (Map.Entry<String, String> query : QUERIES.entrySet()) {
+                assertThat(explain(connection, query.getValue()))
+                        .as(query.getKey())
+                        .noneMatch(line -> line.contains("Seq Scan"));
+            }
+        }
+    }
+
+    private static void capture(final String filter, final Consumer<Predicate> query, final Predicate predicate) {
+        SqlCapture.STATEMENTS.clear();
+        query.accept(predicate);
+        QUERIES.put(filter, SqlCapture.STATEMENTS.get(0));
+    }
+
+    private static List<String> explain(final Connection connection, final String sql) throws Exception {
+        try (PreparedStatement statement = connection.prepareStatement("explain " + sql)) {
+            final ParameterMetaData parameters = statement.getParameterMetaData();
+            for (int i = 1; i <= parameters.getParameterCount(); i++) {
+                statement.setObject(i, someValue(parameters.getParameterType(i)));
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                final List<String> lines = new ArrayList<>();
+                while (resultSet.next()) {
+                    lines.add(resultSet.getString(1));
+                }
+                return lines;
+            }
+        }
+    }
+
+    private static Object someValue(final int type) {
+        return switch (type) {
+            case Types.TIMESTAMP, Types.TIMESTAMP_WITH_TIMEZONE -> SOME_TIME;
+            case Types.INTEGER -> PAGE_SIZE;
+            default -> 1L;
+        };
+    }
+
+    public static final class SqlCapture implements StatementInspector {
+
+        private static final List<String> STATEMENTS = new ArrayList<>();
+
+        @Override
+        public String inspect(final String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+
+    }
+
+}
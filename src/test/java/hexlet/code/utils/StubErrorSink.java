@@ -0,0 +1,29 @@
+package hexlet.code.utils;
+
+import com.rollbar.api.payload.data.Level;
+import hexlet.code.component.ErrorSink;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Keeps reported errors in memory instead of sending them to Rollbar.
+ */
+public class StubErrorSink implements ErrorSink {
+
+    private final List<String> messages = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void send(final Level level, final String message) {
+        messages.add(level + ": " + message);
+    }
+
+    public List<String> getMessages() {
+        return messages;
+    }
+
+    public void clear() {
+        messages.clear();
+    }
+
+}
@@ -6,16 +6,20 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import hexlet.code.component.JWTHelper;
 import hexlet.code.dto.LabelDto;
 import hexlet.code.dto.StatusDto;
+import hexlet.code.dto.TaskDto;
 import hexlet.code.dto.UserDto;
 import hexlet.code.repository.LabelRepository;
 import hexlet.code.repository.StatusRepository;
 import hexlet.code.repository.UserRepository;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Component;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 
+import java.util.List;
 import java.util.Map;
 
 import static hexlet.code.controller.LabelController.LABEL_CONTROLLER_PATH;
@@ -30,32 +34,34 @@ public class TestUtils {
 
     public static final String TEST_USERNAME = "email@email.com";
     public static final String TEST_USERNAME_2 = "email2@email.com";
-    private final UserDto testRegistrationDto = new UserDto(
-            "firstName",
-            "lastName",
-            TEST_USERNAME,
-            "password"
-    );
-    private final StatusDto testStatusDto = new StatusDto("testStatus");
-    private final LabelDto testLabelDto = new LabelDto("testLabel");
+    // listed in security.metrics-users
+    public static final String TEST_METRICS_USERNAME = "metrics@email.com";
+    public static final String TEST_PASSWORD = "password";
+    private final UserDto testRegistrationDto = userDto(TEST_USERNAME);
+    private final StatusDto testStatusDto = statusDto("testStatus");
+    private final LabelDto testLabelDto = labelDto("testLabel");
     private static final ObjectMapper MAPPER = new ObjectMapper().findAndRegisterModules();
 
     private final String baseUrl;
-    private final MockMvc mockMvc;
+    // only tests that perform requests configure MockMvc
+    private final ObjectProvider<MockMvc> mockMvc;
     private final UserRepository userRepository;
     private final StatusRepository statusRepository;
     private final LabelRepository labelRepository;
     private final JWTHelper jwtHelper;
+    private final CacheManager cacheManager;
 
-    public TestUtils(@Value("${base-url}") final String baseUrl, final MockMvc mockMvc,
+    public TestUtils(@Value("${base-url}") final String baseUrl, final ObjectProvider<MockMvc> mockMvc,
                      final UserRepository userRepository, final StatusRepository statusRepository,
-                     final LabelRepository labelRepository, final JWTHelper jwtHelper) {
+                     final LabelRepository labelRepository, final JWTHelper jwtHelper,
+                     final CacheManager cacheManager) {
         this.baseUrl = baseUrl;
         this.mockMvc = mockMvc;
         this.userRepository = userRepository;
         this.statusRepository = statusRepository;
         this.labelRepository = labelRepository;
         this.jwtHelper = jwtHelper;
+        this.cacheManager = cacheManager;
     }
 
     public UserDto getTestRegistrationDto() {
@@ -70,6 +76,24 @@ public class TestUtils {
         return testLabelDto;
     }
 
+    // valid DTOs, shared by the tests and the dataset of the load test
+    public static UserDto userDto(final String email) {
+        return new UserDto("firstName", "lastName", email, TEST_PASSWORD);
+    }
+
+    public static StatusDto statusDto(final String name) {
+        return new StatusDto(name);
+    }
+
+    public static LabelDto labelDto(final String name) {
+        return new LabelDto(name);
+    }
+
+    public static TaskDto taskDto(final String name, final Long taskStatusId, final List<Long> labelIds,
+                                  final Long executorId) {
+        return new TaskDto(name, "description", taskStatusId, labelIds, executorId);
+    }
+
     public String getBaseUrl() {
         return baseUrl;
     }
@@ -78,6 +102,7 @@ public class TestUtils {
         userRepository.deleteAll();
         statusRepository.deleteAll();
         labelRepository.deleteAll();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
     }
 
     public ResultActions createDefaultUser() throws Exception {
@@ -100,7 +125,7 @@ public class TestUtils {
     }
 
     public ResultActions perform(final MockHttpServletRequestBuilder request) throws Exception {
-        return mockMvc.perform(request);
+        return mockMvc.getObject().perform(request);
     }
 
     public static String asJson(final Object object) throws JsonProcessingException {